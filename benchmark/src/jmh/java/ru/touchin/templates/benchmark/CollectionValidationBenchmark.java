@@ -0,0 +1,115 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import ru.touchin.templates.ApiModel;
+
+/**
+ * Measures {@link ApiModel#validateCollection} of {@link ArrayList} with {@link ApiModel.CollectionValidationRule#REMOVE_INVALID_ITEMS}
+ * against removing of invalid items by {@link Iterator#remove()} which was used before in-place compaction.
+ * Every benchmark validates copy of same list so copying cost is equal for all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CollectionValidationBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int itemsCount;
+    @Param({"0", "10", "50"})
+    public int invalidItemsPercent;
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private List<ValidatedItem> items;
+
+    @Setup
+    public void setUp() {
+        // logging of every invalid item would be measured instead of validation
+        ApiModel.API_VALIDATION_LC_GROUP.disable();
+        ApiModel.setParallelValidationThreshold(parallel ? 1 : Integer.MAX_VALUE);
+        items = new ArrayList<>(itemsCount);
+        for (int position = 0; position < itemsCount; position++) {
+            // invalid items are spread evenly over list
+            items.add(new ValidatedItem(position * invalidItemsPercent % 100 >= invalidItemsPercent));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        ApiModel.setParallelValidationThreshold(Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public List<ValidatedItem> compaction() throws ApiModel.ValidationException {
+        final List<ValidatedItem> list = new ArrayList<>(items);
+        ApiModel.validateCollection(list, ApiModel.CollectionValidationRule.REMOVE_INVALID_ITEMS);
+        return list;
+    }
+
+    @Benchmark
+    public List<ValidatedItem> iteratorRemoval() {
+        final List<ValidatedItem> list = new ArrayList<>(items);
+        final Iterator<ValidatedItem> iterator = list.iterator();
+        while (iterator.hasNext()) {
+            try {
+                iterator.next().validate();
+            } catch (final ApiModel.ValidationException exception) {
+                iterator.remove();
+            }
+        }
+        return list;
+    }
+
+    public static class ValidatedItem extends ApiModel {
+
+        private final boolean valid;
+
+        public ValidatedItem(final boolean valid) {
+            super();
+            this.valid = valid;
+        }
+
+        @Override
+        public void validate() throws ValidationException {
+            super.validate();
+            if (!valid) {
+                throw new ValidationException("Item is invalid", 1);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import ru.touchin.templates.logansquare.LoganSquareEnumConverter;
+
+/**
+ * Measures lookup of values by {@link LoganSquareEnumConverter} against linear scan over values which was used before index.
+ * Every invocation looks up all values of {@link LargeEnum} once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EnumConverterBenchmark {
+
+    private static final int VALUES_COUNT = 128;
+
+    private LargeEnum[] values;
+    private String[] names;
+    private String[] upperCaseNames;
+    private LoganSquareEnumConverter<LargeEnum> converter;
+    private LoganSquareEnumConverter<LargeEnum> caseInsensitiveConverter;
+
+    @Setup
+    public void setUp() {
+        values = LargeEnum.values();
+        if (values.length != VALUES_COUNT) {
+            throw new IllegalStateException("Unexpected count of values " + values.length);
+        }
+        names = new String[VALUES_COUNT];
+        upperCaseNames = new String[VALUES_COUNT];
+        for (int position = 0; position < VALUES_COUNT; position++) {
+            // new instances of strings so lookup is not just comparing references
+            names[position] = new String(values[position].getValueName());
+            upperCaseNames[position] = values[position].getValueName().toUpperCase(Locale.US);
+        }
+        converter = new LoganSquareEnumConverter<>(values);
+        caseInsensitiveConverter = new LoganSquareEnumConverter<>(values, null, true);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES_COUNT)
+    public void index(final Blackhole blackhole) {
+        for (final String name : names) {
+            blackhole.consume(converter.getFromString(name));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES_COUNT)
+    public void caseInsensitiveIndex(final Blackhole blackhole) {
+        for (final String name : upperCaseNames) {
+            blackhole.consume(caseInsensitiveConverter.getFromString(name));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES_COUNT)
+    public void linearScan(final Blackhole blackhole) {
+        for (final String name : names) {
+            blackhole.consume(scan(name));
+        }
+    }
+
+    private LargeEnum scan(final String name) {
+        for (final LargeEnum value : values) {
+            if (value.getValueName().equals(name)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Unknown value " + name);
+    }
+
+}
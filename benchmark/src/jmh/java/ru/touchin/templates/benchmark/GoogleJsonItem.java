@@ -0,0 +1,70 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.benchmark;
+
+import com.google.api.client.util.Key;
+import com.google.api.client.util.Value;
+
+import java.util.List;
+
+import ru.touchin.templates.googlejson.GoogleJsonModel;
+
+/**
+ * Item of {@link Payload} parsed by Google Json lib.
+ * Fields are package-private so generated adapter is accessing them directly.
+ */
+public class GoogleJsonItem extends GoogleJsonModel {
+
+    @Key("id")
+    Long id;
+    @Key("name")
+    String name;
+    @Key("price")
+    Double price;
+    @Key("active")
+    Boolean active;
+    @Key("tags")
+    List<String> tags;
+    @Key("kind")
+    Kind kind;
+
+    @Override
+    public void validate() throws ValidationException {
+        super.validate();
+        validateNotNull(id);
+        validateNotNull(name);
+        validateNotNull(price);
+        validateNotNull(active);
+        validateNotNull(tags);
+        validateNotNull(kind);
+    }
+
+    public enum Kind {
+
+        @Value("first")
+        FIRST,
+        @Value("second")
+        SECOND,
+        @Value("third")
+        THIRD
+
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+import ru.touchin.templates.googlejson.GoogleJsonFactory;
+import ru.touchin.templates.logansquare.LoganSquareJsonFactory;
+
+/**
+ * Compares response and request converters of {@link GoogleJsonFactory} (reflection and generated adapters) and {@link LoganSquareJsonFactory}.
+ * Response converters are parsing and validating whole {@link Payload}, request converters are serializing parsed payload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JsonConvertersBenchmark {
+
+    private static final MediaType JSON_MEDIA_TYPE = MediaType.parse("application/json; charset=UTF-8");
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public Payload payload;
+
+    private byte[] jsonBytes;
+    private Converter<ResponseBody, ?> googleJsonResponseConverter;
+    private Converter<ResponseBody, ?> googleJsonGeneratedResponseConverter;
+    private Converter<ResponseBody, ?> loganSquareResponseConverter;
+    private Converter<Object, RequestBody> googleJsonRequestConverter;
+    private Converter<Object, RequestBody> googleJsonGeneratedRequestConverter;
+    private Converter<Object, RequestBody> loganSquareRequestConverter;
+    private Object googleJsonResponse;
+    private Object loganSquareResponse;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IOException {
+        jsonBytes = payload.createJsonBytes();
+        // factories are not using retrofit itself but it is required by converters API
+        final Retrofit retrofit = new Retrofit.Builder().baseUrl("http://localhost/").build();
+        final GoogleJsonFactory googleJsonFactory = new GoogleJsonFactory();
+        final GoogleJsonFactory googleJsonGeneratedFactory = new GoogleJsonFactory(true);
+        final LoganSquareJsonFactory loganSquareJsonFactory = new LoganSquareJsonFactory();
+        googleJsonResponseConverter = googleJsonFactory.responseBodyConverter(GoogleJsonItemsResponse.class, NO_ANNOTATIONS, retrofit);
+        googleJsonGeneratedResponseConverter = googleJsonGeneratedFactory
+                .responseBodyConverter(GoogleJsonItemsResponse.class, NO_ANNOTATIONS, retrofit);
+        if (googleJsonGeneratedResponseConverter instanceof GoogleJsonFactory.GoogleJsonResponseBodyConverter) {
+            throw new IllegalStateException("Adapter of " + GoogleJsonItemsResponse.class + " is not generated");
+        }
+        loganSquareResponseConverter = loganSquareJsonFactory.responseBodyConverter(LoganSquareItemsResponse.class, NO_ANNOTATIONS, retrofit);
+        googleJsonRequestConverter = (Converter<Object, RequestBody>) googleJsonFactory
+                .requestBodyConverter(GoogleJsonItemsResponse.class, NO_ANNOTATIONS, NO_ANNOTATIONS, retrofit);
+        googleJsonGeneratedRequestConverter = (Converter<Object, RequestBody>) googleJsonGeneratedFactory
+                .requestBodyConverter(GoogleJsonItemsResponse.class, NO_ANNOTATIONS, NO_ANNOTATIONS, retrofit);
+        loganSquareRequestConverter = (Converter<Object, RequestBody>) loganSquareJsonFactory
+                .requestBodyConverter(LoganSquareItemsResponse.class, NO_ANNOTATIONS, NO_ANNOTATIONS, retrofit);
+        googleJsonResponse = googleJsonResponse();
+        loganSquareResponse = loganSquareResponse();
+    }
+
+    @Benchmark
+    public Object googleJsonResponse() throws IOException {
+        return googleJsonResponseConverter.convert(ResponseBody.create(JSON_MEDIA_TYPE, jsonBytes));
+    }
+
+    @Benchmark
+    public Object googleJsonGeneratedResponse() throws IOException {
+        return googleJsonGeneratedResponseConverter.convert(ResponseBody.create(JSON_MEDIA_TYPE, jsonBytes));
+    }
+
+    @Benchmark
+    public Object loganSquareResponse() throws IOException {
+        return loganSquareResponseConverter.convert(ResponseBody.create(JSON_MEDIA_TYPE, jsonBytes));
+    }
+
+    @Benchmark
+    public long googleJsonRequest() throws IOException {
+        return writeBody(googleJsonRequestConverter.convert(googleJsonResponse));
+    }
+
+    @Benchmark
+    public long googleJsonGeneratedRequest() throws IOException {
+        return writeBody(googleJsonGeneratedRequestConverter.convert(googleJsonResponse));
+    }
+
+    @Benchmark
+    public long loganSquareRequest() throws IOException {
+        return writeBody(loganSquareRequestConverter.convert(loganSquareResponse));
+    }
+
+    private long writeBody(final RequestBody requestBody) throws IOException {
+        // body could be written lazily so writing it is part of measurement
+        final Buffer buffer = new Buffer();
+        requestBody.writeTo(buffer);
+        return buffer.size();
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.benchmark;
+
+import android.support.annotation.NonNull;
+
+import ru.touchin.templates.logansquare.LoganSquareEnum;
+
+/**
+ * Enum with lots of values to measure lookup of values by names.
+ */
+public enum LargeEnum implements LoganSquareEnum {
+
+    VALUE_000("value_000"), VALUE_001("value_001"), VALUE_002("value_002"), VALUE_003("value_003"), VALUE_004("value_004"), VALUE_005("value_005"),
+    VALUE_006("value_006"), VALUE_007("value_007"), VALUE_008("value_008"), VALUE_009("value_009"), VALUE_010("value_010"), VALUE_011("value_011"),
+    VALUE_012("value_012"), VALUE_013("value_013"), VALUE_014("value_014"), VALUE_015("value_015"), VALUE_016("value_016"), VALUE_017("value_017"),
+    VALUE_018("value_018"), VALUE_019("value_019"), VALUE_020("value_020"), VALUE_021("value_021"), VALUE_022("value_022"), VALUE_023("value_023"),
+    VALUE_024("value_024"), VALUE_025("value_025"), VALUE_026("value_026"), VALUE_027("value_027"), VALUE_028("value_028"), VALUE_029("value_029"),
+    VALUE_030("value_030"), VALUE_031("value_031"), VALUE_032("value_032"), VALUE_033("value_033"), VALUE_034("value_034"), VALUE_035("value_035"),
+    VALUE_036("value_036"), VALUE_037("value_037"), VALUE_038("value_038"), VALUE_039("value_039"), VALUE_040("value_040"), VALUE_041("value_041"),
+    VALUE_042("value_042"), VALUE_043("value_043"), VALUE_044("value_044"), VALUE_045("value_045"), VALUE_046("value_046"), VALUE_047("value_047"),
+    VALUE_048("value_048"), VALUE_049("value_049"), VALUE_050("value_050"), VALUE_051("value_051"), VALUE_052("value_052"), VALUE_053("value_053"),
+    VALUE_054("value_054"), VALUE_055("value_055"), VALUE_056("value_056"), VALUE_057("value_057"), VALUE_058("value_058"), VALUE_059("value_059"),
+    VALUE_060("value_060"), VALUE_061("value_061"), VALUE_062("value_062"), VALUE_063("value_063"), VALUE_064("value_064"), VALUE_065("value_065"),
+    VALUE_066("value_066"), VALUE_067("value_067"), VALUE_068("value_068"), VALUE_069("value_069"), VALUE_070("value_070"), VALUE_071("value_071"),
+    VALUE_072("value_072"), VALUE_073("value_073"), VALUE_074("value_074"), VALUE_075("value_075"), VALUE_076("value_076"), VALUE_077("value_077"),
+    VALUE_078("value_078"), VALUE_079("value_079"), VALUE_080("value_080"), VALUE_081("value_081"), VALUE_082("value_082"), VALUE_083("value_083"),
+    VALUE_084("value_084"), VALUE_085("value_085"), VALUE_086("value_086"), VALUE_087("value_087"), VALUE_088("value_088"), VALUE_089("value_089"),
+    VALUE_090("value_090"), VALUE_091("value_091"), VALUE_092("value_092"), VALUE_093("value_093"), VALUE_094("value_094"), VALUE_095("value_095"),
+    VALUE_096("value_096"), VALUE_097("value_097"), VALUE_098("value_098"), VALUE_099("value_099"), VALUE_100("value_100"), VALUE_101("value_101"),
+    VALUE_102("value_102"), VALUE_103("value_103"), VALUE_104("value_104"), VALUE_105("value_105"), VALUE_106("value_106"), VALUE_107("value_107"),
+    VALUE_108("value_108"), VALUE_109("value_109"), VALUE_110("value_110"), VALUE_111("value_111"), VALUE_112("value_112"), VALUE_113("value_113"),
+    VALUE_114("value_114"), VALUE_115("value_115"), VALUE_116("value_116"), VALUE_117("value_117"), VALUE_118("value_118"), VALUE_119("value_119"),
+    VALUE_120("value_120"), VALUE_121("value_121"), VALUE_122("value_122"), VALUE_123("value_123"), VALUE_124("value_124"), VALUE_125("value_125"),
+    VALUE_126("value_126"), VALUE_127("value_127");
+
+    @NonNull
+    private final String valueName;
+
+    LargeEnum(@NonNull final String valueName) {
+        this.valueName = valueName;
+    }
+
+    @NonNull
+    @Override
+    public String getValueName() {
+        return valueName;
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.benchmark;
+
+import android.support.annotation.NonNull;
+
+import com.bluelinelabs.logansquare.annotation.JsonField;
+import com.bluelinelabs.logansquare.annotation.JsonObject;
+
+import java.util.List;
+
+import ru.touchin.templates.logansquare.LoganSquareEnum;
+import ru.touchin.templates.logansquare.LoganSquareEnumConverter;
+import ru.touchin.templates.logansquare.LoganSquareJsonModel;
+
+/**
+ * Item of {@link Payload} parsed by LoganSquare.
+ * Fields are package-private as generated mapper is accessing them directly.
+ */
+@JsonObject
+public class LoganSquareItem extends LoganSquareJsonModel {
+
+    @JsonField(name = "id")
+    Long id;
+    @JsonField(name = "name")
+    String name;
+    @JsonField(name = "price")
+    Double price;
+    @JsonField(name = "active")
+    Boolean active;
+    @JsonField(name = "tags")
+    List<String> tags;
+    @JsonField(name = "kind", typeConverter = KindConverter.class)
+    Kind kind;
+
+    @Override
+    public void validate() throws ValidationException {
+        super.validate();
+        validateNotNull(id);
+        validateNotNull(name);
+        validateNotNull(price);
+        validateNotNull(active);
+        validateNotNull(tags);
+        validateNotNull(kind);
+    }
+
+    public enum Kind implements LoganSquareEnum {
+
+        FIRST("first"),
+        SECOND("second"),
+        THIRD("third");
+
+        @NonNull
+        private final String valueName;
+
+        Kind(@NonNull final String valueName) {
+            this.valueName = valueName;
+        }
+
+        @NonNull
+        @Override
+        public String getValueName() {
+            return valueName;
+        }
+
+    }
+
+    public static class KindConverter extends LoganSquareEnumConverter<Kind> {
+
+        public KindConverter() {
+            super(Kind.values());
+        }
+
+    }
+
+}
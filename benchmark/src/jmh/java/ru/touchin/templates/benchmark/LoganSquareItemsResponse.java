@@ -0,0 +1,45 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.benchmark;
+
+import com.bluelinelabs.logansquare.annotation.JsonField;
+import com.bluelinelabs.logansquare.annotation.JsonObject;
+
+import java.util.List;
+
+import ru.touchin.templates.logansquare.LoganSquareJsonModel;
+
+/**
+ * {@link Payload} parsed by LoganSquare.
+ */
+@JsonObject
+public class LoganSquareItemsResponse extends LoganSquareJsonModel {
+
+    @JsonField(name = "items")
+    List<LoganSquareItem> items;
+
+    @Override
+    public void validate() throws ValidationException {
+        super.validate();
+        validateNotNull(items);
+        validateCollection(items, CollectionValidationRule.REMOVE_INVALID_ITEMS);
+    }
+
+}
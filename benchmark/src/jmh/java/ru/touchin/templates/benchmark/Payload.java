@@ -0,0 +1,86 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.benchmark;
+
+import android.support.annotation.NonNull;
+
+import java.nio.charset.Charset;
+
+/**
+ * Shared corpus of JSON payloads which are used by benchmarks of both JSON stacks.
+ * Payload is an object with list of items: {"items": [{"id": 0, "name": "Item 0", ...}, ...]}.
+ */
+public enum Payload {
+
+    SMALL(1),
+    MEDIUM(100),
+    LARGE(10000);
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String[] KIND_NAMES = {"first", "second", "third"};
+
+    private final int itemsCount;
+
+    Payload(final int itemsCount) {
+        this.itemsCount = itemsCount;
+    }
+
+    /**
+     * Returns count of items in payload.
+     *
+     * @return Count of items.
+     */
+    public int getItemsCount() {
+        return itemsCount;
+    }
+
+    /**
+     * Generates JSON of payload. Same payload is always generated same.
+     *
+     * @return JSON string.
+     */
+    @NonNull
+    public String createJson() {
+        final StringBuilder stringBuilder = new StringBuilder("{\"items\":[");
+        for (int position = 0; position < itemsCount; position++) {
+            if (position > 0) {
+                stringBuilder.append(',');
+            }
+            stringBuilder.append("{\"id\":").append(position)
+                    .append(",\"name\":\"Item ").append(position).append('"')
+                    .append(",\"price\":").append(position).append(".5")
+                    .append(",\"active\":").append(position % 2 == 0)
+                    .append(",\"tags\":[\"tag").append(position % 10).append("\",\"common\"]")
+                    .append(",\"kind\":\"").append(KIND_NAMES[position % KIND_NAMES.length]).append("\"}");
+        }
+        return stringBuilder.append("]}").toString();
+    }
+
+    /**
+     * Generates JSON of payload in UTF-8.
+     *
+     * @return JSON bytes.
+     */
+    @NonNull
+    public byte[] createJsonBytes() {
+        return createJson().getBytes(UTF_8);
+    }
+
+}
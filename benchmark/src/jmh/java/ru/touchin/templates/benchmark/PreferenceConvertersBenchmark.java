@@ -0,0 +1,118 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import ru.touchin.templates.googlejson.GoogleJsonPreferences;
+import ru.touchin.templates.logansquare.LoganSquarePreferences;
+
+/**
+ * Compares {@link GoogleJsonPreferences.JsonConverter} and {@link LoganSquarePreferences.JsonConverter}
+ * which are converting values of preference storables from and to JSON strings
+ * with their binary variants which are converting values from and to Base64 packed Smile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PreferenceConvertersBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public Payload payload;
+
+    private String json;
+    private GoogleJsonPreferences.JsonConverter<GoogleJsonItemsResponse> googleJsonConverter;
+    private LoganSquarePreferences.JsonConverter<LoganSquareItemsResponse> loganSquareConverter;
+    private GoogleJsonPreferences.BinaryConverter<GoogleJsonItemsResponse> googleJsonBinaryConverter;
+    private LoganSquarePreferences.BinaryConverter<LoganSquareItemsResponse> loganSquareBinaryConverter;
+    private String googleJsonBinary;
+    private String loganSquareBinary;
+    private GoogleJsonItemsResponse googleJsonValue;
+    private LoganSquareItemsResponse loganSquareValue;
+
+    @Setup
+    public void setUp() {
+        json = payload.createJson();
+        googleJsonConverter = new GoogleJsonPreferences.JsonConverter<>();
+        loganSquareConverter = new LoganSquarePreferences.JsonConverter<>();
+        googleJsonValue = googleJsonToObject();
+        loganSquareValue = loganSquareToObject();
+        googleJsonBinaryConverter = new GoogleJsonPreferences.BinaryConverter<>();
+        loganSquareBinaryConverter = new LoganSquarePreferences.BinaryConverter<>();
+        googleJsonBinary = googleJsonBinaryToStoreObject();
+        loganSquareBinary = loganSquareBinaryToStoreObject();
+    }
+
+    @Benchmark
+    public GoogleJsonItemsResponse googleJsonToObject() {
+        return googleJsonConverter.toObject(GoogleJsonItemsResponse.class, String.class, json);
+    }
+
+    @Benchmark
+    public LoganSquareItemsResponse loganSquareToObject() {
+        return loganSquareConverter.toObject(LoganSquareItemsResponse.class, String.class, json);
+    }
+
+    @Benchmark
+    public String googleJsonToStoreObject() {
+        return googleJsonConverter.toStoreObject(GoogleJsonItemsResponse.class, String.class, googleJsonValue);
+    }
+
+    @Benchmark
+    public String loganSquareToStoreObject() {
+        return loganSquareConverter.toStoreObject(LoganSquareItemsResponse.class, String.class, loganSquareValue);
+    }
+
+    @Benchmark
+    public GoogleJsonItemsResponse googleJsonBinaryToObject() {
+        return googleJsonBinaryConverter.toObject(GoogleJsonItemsResponse.class, String.class, googleJsonBinary);
+    }
+
+    @Benchmark
+    public LoganSquareItemsResponse loganSquareBinaryToObject() {
+        return loganSquareBinaryConverter.toObject(LoganSquareItemsResponse.class, String.class, loganSquareBinary);
+    }
+
+    @Benchmark
+    public String googleJsonBinaryToStoreObject() {
+        return googleJsonBinaryConverter.toStoreObject(GoogleJsonItemsResponse.class, String.class, googleJsonValue);
+    }
+
+    @Benchmark
+    public String loganSquareBinaryToStoreObject() {
+        return loganSquareBinaryConverter.toStoreObject(LoganSquareItemsResponse.class, String.class, loganSquareValue);
+    }
+
+    @Benchmark
+    public GoogleJsonItemsResponse googleJsonBinaryToObjectFromJson() {
+        // values stored as JSON before migration are read by binary converter too
+        return googleJsonBinaryConverter.toObject(GoogleJsonItemsResponse.class, String.class, json);
+    }
+
+}
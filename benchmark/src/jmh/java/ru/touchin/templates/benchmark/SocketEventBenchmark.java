@@ -0,0 +1,112 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.benchmark;
+
+import android.support.annotation.NonNull;
+
+import com.bluelinelabs.logansquare.LoganSquare;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import ru.touchin.templates.googlejson.GoogleJsonSocketEvent;
+import ru.touchin.templates.socket.SocketEvent;
+
+/**
+ * Compares parsing of socket event messages from bytes and from strings.
+ * Library has only {@link GoogleJsonSocketEvent} so LoganSquare is measured by {@link LoganSquareSocketEvent}
+ * which is parsing messages same way as LoganSquare converters are doing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SocketEventBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public Payload payload;
+
+    private String json;
+    private byte[] jsonBytes;
+    private SocketEvent<GoogleJsonItemsResponse> googleJsonEvent;
+    private SocketEvent<LoganSquareItemsResponse> loganSquareEvent;
+
+    @Setup
+    public void setUp() {
+        json = payload.createJson();
+        jsonBytes = payload.createJsonBytes();
+        googleJsonEvent = new GoogleJsonSocketEvent<>("items", GoogleJsonItemsResponse.class, null);
+        loganSquareEvent = new LoganSquareSocketEvent<>("items", LoganSquareItemsResponse.class);
+    }
+
+    @Benchmark
+    public GoogleJsonItemsResponse googleJsonParseBytes() throws IOException {
+        return googleJsonEvent.parse(jsonBytes);
+    }
+
+    @Benchmark
+    public GoogleJsonItemsResponse googleJsonParseString() throws IOException {
+        return googleJsonEvent.parse(json);
+    }
+
+    @Benchmark
+    public LoganSquareItemsResponse loganSquareParseBytes() throws IOException {
+        return loganSquareEvent.parse(jsonBytes);
+    }
+
+    @Benchmark
+    public LoganSquareItemsResponse loganSquareParseString() throws IOException {
+        return loganSquareEvent.parse(json);
+    }
+
+    private static class LoganSquareSocketEvent<TMessage extends LoganSquareItemsResponse> extends SocketEvent<TMessage> {
+
+        public LoganSquareSocketEvent(@NonNull final String name, @NonNull final Class<TMessage> messageClass) {
+            super(name, messageClass, null);
+        }
+
+        @NonNull
+        @Override
+        public TMessage parse(@NonNull final byte[] data) throws IOException {
+            final TMessage message = LoganSquare.parse(new ByteArrayInputStream(data), getMessageClass());
+            message.validate();
+            return message;
+        }
+
+        @NonNull
+        @Override
+        public TMessage parse(@NonNull final String data) throws IOException {
+            final TMessage message = LoganSquare.parse(data, getMessageClass());
+            message.validate();
+            return message;
+        }
+
+    }
+
+}
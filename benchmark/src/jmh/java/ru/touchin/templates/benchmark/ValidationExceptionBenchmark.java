@@ -0,0 +1,61 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import ru.touchin.roboswag.core.log.Lc;
+import ru.touchin.templates.ApiModel;
+
+/**
+ * Measures creation of {@link ApiModel.ValidationException} with code point that is resolved lazily
+ * against creation with code point that is added to message immediately.
+ * Reading of message of lazy exception shows cost of failures which are logged.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ValidationExceptionBenchmark {
+
+    private static final String REASON = "Not nullable object is null";
+
+    @Benchmark
+    public ApiModel.ValidationException lazyCodePoint() {
+        return new ApiModel.ValidationException(REASON, 1);
+    }
+
+    @Benchmark
+    public String lazyCodePointMessage() {
+        return new ApiModel.ValidationException(REASON, 1).getMessage();
+    }
+
+    @Benchmark
+    public ApiModel.ValidationException eagerCodePoint() {
+        return new ApiModel.ValidationException(REASON + " at " + Lc.getCodePoint(null, 1));
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package ru.touchin.templates.googlejson.processor;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * {@code Key} field of model that is parsed and serialized by generated adapter.
+ */
+class AdapterField {
+
+    /**
+     * Kind of field defining how adapter parses and serializes it.
+     * Values of {@link #OTHER} fields and unexpected JSON tokens of other fields are handled by reflection of Google Json lib.
+     */
+    enum Kind {
+        STRING,
+        BOOLEAN,
+        INT,
+        LONG,
+        FLOAT,
+        DOUBLE,
+        MODEL,
+        MODELS_LIST,
+        OTHER
+    }
+
+    private final VariableElement element;
+    private final TypeElement declaringElement;
+    private final String jsonName;
+    private final Kind kind;
+
+    AdapterField(final VariableElement element, final TypeElement declaringElement, final String jsonName, final Kind kind) {
+        this.element = element;
+        this.declaringElement = declaringElement;
+        this.jsonName = jsonName;
+        this.kind = kind;
+    }
+
+    String getJavaName() {
+        return element.getSimpleName().toString();
+    }
+
+    TypeElement getDeclaringElement() {
+        return declaringElement;
+    }
+
+    String getJsonName() {
+        return jsonName;
+    }
+
+    TypeMirror getType() {
+        return element.asType();
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns type of model which is value of {@link Kind#MODEL} field or item of {@link Kind#MODELS_LIST} field.
+     */
+    TypeMirror getModelType() {
+        return kind == Kind.MODELS_LIST ? ((DeclaredType) element.asType()).getTypeArguments().get(0) : element.asType();
+    }
+
+}
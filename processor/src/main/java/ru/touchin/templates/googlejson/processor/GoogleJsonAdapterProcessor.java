@@ -0,0 +1,266 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package ru.touchin.templates.googlejson.processor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Annotation processor that generates {@code GoogleJsonAdapter}s of {@code GoogleJsonModel}s with {@code Key} fields.
+ * Adapter is generated in package of model with name '[model binary name]$$GoogleJsonAdapter' so {@code GoogleJsonAdapters} finds it.
+ * Adapter reads and writes fields directly so model should be non-abstract, non-generic, accessible from its package
+ * and have non-private no-arguments constructor and non-private non-final {@code Key} fields.
+ * Other models are reported by compiler note and are parsed by reflection.
+ */
+@SupportedAnnotationTypes(GoogleJsonAdapterProcessor.KEY_ANNOTATION)
+public class GoogleJsonAdapterProcessor extends AbstractProcessor {
+
+    static final String KEY_ANNOTATION = "com.google.api.client.util.Key";
+    private static final String JSON_STRING_ANNOTATION = "com.google.api.client.json.JsonString";
+    private static final String GOOGLE_JSON_MODEL = "ru.touchin.templates.googlejson.GoogleJsonModel";
+    private static final String DEFAULT_KEY = "##default";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnvironment) {
+        final TypeElement googleJsonModelElement = processingEnv.getElementUtils().getTypeElement(GOOGLE_JSON_MODEL);
+        if (googleJsonModelElement == null) {
+            return false;
+        }
+        final TypeMirror googleJsonModelType = googleJsonModelElement.asType();
+        final Set<TypeElement> modelElements = new LinkedHashSet<>();
+        for (final TypeElement annotation : annotations) {
+            for (final Element element : roundEnvironment.getElementsAnnotatedWith(annotation)) {
+                final Element enclosingElement = element.getEnclosingElement();
+                if (element.getKind() == ElementKind.FIELD && enclosingElement.getKind() == ElementKind.CLASS
+                        && isSubtype(enclosingElement.asType(), googleJsonModelType)) {
+                    modelElements.add((TypeElement) enclosingElement);
+                }
+            }
+        }
+        for (final TypeElement modelElement : modelElements) {
+            final List<AdapterField> fields = getAdapterFields(modelElement, googleJsonModelElement);
+            if (fields == null) {
+                continue;
+            }
+            try {
+                new GoogleJsonAdapterWriter(processingEnv, modelElement, fields).write();
+            } catch (final IOException exception) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Can't write GoogleJsonAdapter of " + modelElement + ": " + exception, modelElement);
+            }
+        }
+        // Key annotation is not claimed as it is processed by reflection too
+        return false;
+    }
+
+    /**
+     * Returns fields of model that adapter should parse and serialize or null if adapter can't be generated for model.
+     */
+    private List<AdapterField> getAdapterFields(final TypeElement modelElement, final TypeElement googleJsonModelElement) {
+        final String packageName = getPackageName(modelElement);
+        final String classProblem = getClassProblem(modelElement, packageName);
+        if (classProblem != null) {
+            skipModel(modelElement, classProblem);
+            return null;
+        }
+        final List<AdapterField> fields = new ArrayList<>();
+        final Set<String> javaNames = new HashSet<>();
+        final Set<String> jsonNames = new HashSet<>();
+        TypeElement currentElement = modelElement;
+        while (!currentElement.equals(googleJsonModelElement)) {
+            if (!currentElement.getTypeParameters().isEmpty()) {
+                skipModel(modelElement, currentElement + " is generic");
+                return null;
+            }
+            for (final VariableElement fieldElement : ElementFilter.fieldsIn(currentElement.getEnclosedElements())) {
+                final AnnotationMirror keyAnnotation = getAnnotation(fieldElement, KEY_ANNOTATION);
+                if (keyAnnotation == null || fieldElement.getModifiers().contains(Modifier.STATIC)) {
+                    continue;
+                }
+                final String fieldProblem = getFieldProblem(fieldElement, currentElement, packageName);
+                if (fieldProblem != null) {
+                    skipModel(modelElement, "field " + currentElement + "." + fieldElement.getSimpleName() + " " + fieldProblem);
+                    return null;
+                }
+                final AdapterField field = new AdapterField(fieldElement, currentElement, getJsonName(fieldElement, keyAnnotation),
+                        getFieldKind(fieldElement.asType(), googleJsonModelElement.asType()));
+                if (!javaNames.add(field.getJavaName()) || !jsonNames.add(field.getJsonName())) {
+                    skipModel(modelElement, "field " + field.getJavaName() + " or key '" + field.getJsonName() + "' is declared twice");
+                    return null;
+                }
+                fields.add(field);
+            }
+            currentElement = (TypeElement) processingEnv.getTypeUtils().asElement(currentElement.getSuperclass());
+        }
+        return fields;
+    }
+
+    private String getClassProblem(final TypeElement modelElement, final String packageName) {
+        if (modelElement.getModifiers().contains(Modifier.ABSTRACT)) {
+            return "class is abstract";
+        }
+        if (modelElement.getNestingKind() == NestingKind.LOCAL || modelElement.getNestingKind() == NestingKind.ANONYMOUS) {
+            return "class is local";
+        }
+        Element element = modelElement;
+        while (element.getKind() != ElementKind.PACKAGE) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                return "class is not accessible from package " + packageName;
+            }
+            if (((TypeElement) element).getNestingKind() == NestingKind.MEMBER && !element.getModifiers().contains(Modifier.STATIC)) {
+                return "class is inner class";
+            }
+            element = element.getEnclosingElement();
+        }
+        for (final ExecutableElement constructorElement : ElementFilter.constructorsIn(modelElement.getEnclosedElements())) {
+            if (constructorElement.getParameters().isEmpty()) {
+                return constructorElement.getModifiers().contains(Modifier.PRIVATE) ? "no-arguments constructor is private" : null;
+            }
+        }
+        return "class has no no-arguments constructor";
+    }
+
+    private String getFieldProblem(final VariableElement fieldElement, final TypeElement declaringElement, final String packageName) {
+        if (!isAccessible(fieldElement, packageName) || !isAccessible(declaringElement, packageName)) {
+            return "is not accessible from package " + packageName;
+        }
+        if (fieldElement.getModifiers().contains(Modifier.FINAL)) {
+            return "is final";
+        }
+        if (getAnnotation(fieldElement, JSON_STRING_ANNOTATION) != null) {
+            return "is annotated with JsonString";
+        }
+        return null;
+    }
+
+    private boolean isAccessible(final Element element, final String packageName) {
+        return element.getModifiers().contains(Modifier.PUBLIC)
+                || !element.getModifiers().contains(Modifier.PRIVATE) && getPackageName(element).equals(packageName);
+    }
+
+    private String getPackageName(final Element element) {
+        return processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().toString();
+    }
+
+    private boolean isSubtype(final TypeMirror type, final TypeMirror supertype) {
+        return processingEnv.getTypeUtils().isSubtype(processingEnv.getTypeUtils().erasure(type), processingEnv.getTypeUtils().erasure(supertype));
+    }
+
+    private AdapterField.Kind getFieldKind(final TypeMirror type, final TypeMirror googleJsonModelType) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return AdapterField.Kind.BOOLEAN;
+            case INT:
+                return AdapterField.Kind.INT;
+            case LONG:
+                return AdapterField.Kind.LONG;
+            case FLOAT:
+                return AdapterField.Kind.FLOAT;
+            case DOUBLE:
+                return AdapterField.Kind.DOUBLE;
+            case DECLARED:
+                break;
+            default:
+                return AdapterField.Kind.OTHER;
+        }
+        switch (((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString()) {
+            case "java.lang.String":
+                return AdapterField.Kind.STRING;
+            case "java.lang.Boolean":
+                return AdapterField.Kind.BOOLEAN;
+            case "java.lang.Integer":
+                return AdapterField.Kind.INT;
+            case "java.lang.Long":
+                return AdapterField.Kind.LONG;
+            case "java.lang.Float":
+                return AdapterField.Kind.FLOAT;
+            case "java.lang.Double":
+                return AdapterField.Kind.DOUBLE;
+            case "java.util.List":
+            case "java.util.Collection":
+            case "java.util.ArrayList":
+                // reflection is parsing them into ArrayList too
+                final List<? extends TypeMirror> typeArguments = ((DeclaredType) type).getTypeArguments();
+                return typeArguments.size() == 1 && isModelType(typeArguments.get(0), googleJsonModelType)
+                        ? AdapterField.Kind.MODELS_LIST
+                        : AdapterField.Kind.OTHER;
+            default:
+                return isModelType(type, googleJsonModelType) ? AdapterField.Kind.MODEL : AdapterField.Kind.OTHER;
+        }
+    }
+
+    private boolean isModelType(final TypeMirror type, final TypeMirror googleJsonModelType) {
+        return type.getKind() == TypeKind.DECLARED && ((DeclaredType) type).getTypeArguments().isEmpty() && isSubtype(type, googleJsonModelType);
+    }
+
+    private static AnnotationMirror getAnnotation(final Element element, final String annotationName) {
+        for (final AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private static String getJsonName(final VariableElement fieldElement, final AnnotationMirror keyAnnotation) {
+        for (final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : keyAnnotation.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals("value") && !DEFAULT_KEY.equals(entry.getValue().getValue())) {
+                return (String) entry.getValue().getValue();
+            }
+        }
+        return fieldElement.getSimpleName().toString();
+    }
+
+    private void skipModel(final TypeElement modelElement, final String reason) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                "GoogleJsonAdapter of " + modelElement + " is not generated as " + reason + ". It will be parsed by reflection.", modelElement);
+    }
+
+}
@@ -0,0 +1,398 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+
+package ru.touchin.templates.googlejson.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.JavaFileObject;
+
+/**
+ * Writes source of adapter of one model.
+ * Values are read and written directly by Google Json parser and generator if JSON token or field type is known
+ * and by reflection of Google Json lib otherwise so result is the same as reflection-based parsing and serialization.
+ */
+class GoogleJsonAdapterWriter {
+
+    private static final String ADAPTER_SUFFIX = "$$GoogleJsonAdapter";
+    private static final String ADAPTER = "ru.touchin.templates.googlejson.GoogleJsonAdapter";
+    private static final String ADAPTERS = "ru.touchin.templates.googlejson.GoogleJsonAdapters";
+    private static final String JSON_PARSER = "com.google.api.client.json.JsonParser";
+    private static final String JSON_GENERATOR = "com.google.api.client.json.JsonGenerator";
+    private static final String JSON_TOKEN = "com.google.api.client.json.JsonToken";
+    private static final String DATA = "com.google.api.client.util.Data";
+    private static final String TYPE = "java.lang.reflect.Type";
+    private static final String IO_EXCEPTION = "java.io.IOException";
+    private static final String INDENT = "    ";
+
+    private final ProcessingEnvironment processingEnv;
+    private final TypeElement modelElement;
+    private final String modelName;
+    private final List<AdapterField> fields;
+    private final StringBuilder source = new StringBuilder();
+    private int indentLevel;
+
+    GoogleJsonAdapterWriter(final ProcessingEnvironment processingEnv, final TypeElement modelElement, final List<AdapterField> fields) {
+        this.processingEnv = processingEnv;
+        this.modelElement = modelElement;
+        this.modelName = modelElement.getQualifiedName().toString();
+        this.fields = fields;
+    }
+
+    void write() throws IOException {
+        final String packageName = processingEnv.getElementUtils().getPackageOf(modelElement).getQualifiedName().toString();
+        final String binaryName = processingEnv.getElementUtils().getBinaryName(modelElement).toString();
+        final String adapterName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + ADAPTER_SUFFIX;
+
+        line("// Generated by GoogleJsonAdapterProcessor. Do not modify.");
+        if (!packageName.isEmpty()) {
+            line("package " + packageName + ";");
+            line("");
+        }
+        line("/**");
+        line(" * Adapter of {@link " + modelName + "} generated by GoogleJsonAdapterProcessor.");
+        line(" */");
+        begin("public final class " + adapterName + " implements " + ADAPTER + "<" + modelName + ">");
+        line("");
+        final boolean hasFieldTypes = writeFieldTypes();
+        writeParse();
+        writeSerialize();
+        if (hasFieldTypes) {
+            writeGetFieldType();
+        }
+        line("");
+        end();
+
+        final JavaFileObject sourceFile = processingEnv.getFiler()
+                .createSourceFile(packageName.isEmpty() ? adapterName : packageName + '.' + adapterName, modelElement);
+        final Writer writer = sourceFile.openWriter();
+        try {
+            writer.write(source.toString());
+        } finally {
+            writer.close();
+        }
+    }
+
+    private boolean writeFieldTypes() {
+        boolean hasFieldTypes = false;
+        for (final AdapterField field : fields) {
+            if (!isClassType(field.getType())) {
+                line("private static final " + TYPE + " " + getFieldTypeName(field)
+                        + " = getFieldType(" + field.getDeclaringElement().getQualifiedName() + ".class, \"" + field.getJavaName() + "\");");
+                hasFieldTypes = true;
+            }
+        }
+        if (hasFieldTypes) {
+            line("");
+        }
+        return hasFieldTypes;
+    }
+
+    private void writeParse() {
+        line("@Override");
+        line("@SuppressWarnings(\"unchecked\")");
+        begin("public " + modelName + " parse(final " + JSON_PARSER + " parser) throws " + IO_EXCEPTION);
+        line(JSON_TOKEN + " token = parser.getCurrentToken() != null ? parser.getCurrentToken() : parser.nextToken();");
+        begin("if (token != " + JSON_TOKEN + ".START_OBJECT)");
+        line("return (" + modelName + ") parser.parse(" + modelName + ".class, false);");
+        end();
+        line("final " + modelName + " model = new " + modelName + "();");
+        begin("while (parser.nextToken() == " + JSON_TOKEN + ".FIELD_NAME)");
+        line("final String key = parser.getCurrentName();");
+        line("token = parser.nextToken();");
+        begin("switch (key)");
+        for (final AdapterField field : fields) {
+            begin("case " + quote(field.getJsonName()) + ":");
+            writeParseField(field);
+            line("break;");
+            indentLevel--;
+        }
+        begin("default:");
+        line("parser.skipChildren();");
+        line("break;");
+        indentLevel--;
+        end();
+        end();
+        line("return model;");
+        end();
+        line("");
+    }
+
+    private void writeParseField(final AdapterField field) {
+        final String fieldReference = "model." + field.getJavaName();
+        final String reflectionParsing = fieldReference + " = (" + getCastName(field.getType()) + ") parser.parse("
+                + getTypeExpression(field) + ", false);";
+        switch (field.getKind()) {
+            case STRING:
+                writeParseToken(fieldReference, "token == " + JSON_TOKEN + ".VALUE_STRING", "parser.getText()", reflectionParsing);
+                break;
+            case BOOLEAN:
+                writeParseToken(fieldReference, "token == " + JSON_TOKEN + ".VALUE_TRUE || token == " + JSON_TOKEN + ".VALUE_FALSE",
+                        "token == " + JSON_TOKEN + ".VALUE_TRUE", reflectionParsing);
+                break;
+            case INT:
+                writeParseToken(fieldReference, "token == " + JSON_TOKEN + ".VALUE_NUMBER_INT", "parser.getIntValue()", reflectionParsing);
+                break;
+            case LONG:
+                writeParseToken(fieldReference, "token == " + JSON_TOKEN + ".VALUE_NUMBER_INT", "parser.getLongValue()", reflectionParsing);
+                break;
+            case FLOAT:
+                writeParseToken(fieldReference, "token == " + JSON_TOKEN + ".VALUE_NUMBER_INT || token == " + JSON_TOKEN + ".VALUE_NUMBER_FLOAT",
+                        "parser.getFloatValue()", reflectionParsing);
+                break;
+            case DOUBLE:
+                writeParseToken(fieldReference, "token == " + JSON_TOKEN + ".VALUE_NUMBER_INT || token == " + JSON_TOKEN + ".VALUE_NUMBER_FLOAT",
+                        "parser.getDoubleValue()", reflectionParsing);
+                break;
+            case MODEL:
+                final String modelAdapterName = getAdapterName(field);
+                line("final " + getAdapterType(field) + " " + modelAdapterName + " = token == " + JSON_TOKEN + ".START_OBJECT");
+                line(INDENT + INDENT + "? " + getAdapterLookup(field) + " : null;");
+                writeParseToken(fieldReference, modelAdapterName + " != null", modelAdapterName + ".parse(parser)", reflectionParsing);
+                break;
+            case MODELS_LIST:
+                writeParseModelsList(field, fieldReference, reflectionParsing);
+                break;
+            case OTHER:
+            default:
+                line(reflectionParsing);
+                break;
+        }
+    }
+
+    private void writeParseToken(final String fieldReference, final String condition, final String expression, final String reflectionParsing) {
+        begin("if (" + condition + ")");
+        line(fieldReference + " = " + expression + ";");
+        middle("else");
+        line(reflectionParsing);
+        end();
+    }
+
+    private void writeParseModelsList(final AdapterField field, final String fieldReference, final String reflectionParsing) {
+        final String modelTypeName = field.getModelType().toString();
+        final String adapterName = getAdapterName(field);
+        final String listName = field.getJavaName() + "List";
+        begin("if (token == " + JSON_TOKEN + ".START_ARRAY)");
+        line("final " + getAdapterType(field) + " " + adapterName + " = " + getAdapterLookup(field) + ";");
+        line("final java.util.ArrayList<" + modelTypeName + "> " + listName + " = new java.util.ArrayList<" + modelTypeName + ">();");
+        begin("while (parser.nextToken() != " + JSON_TOKEN + ".END_ARRAY)");
+        begin("if (" + adapterName + " != null && parser.getCurrentToken() == " + JSON_TOKEN + ".START_OBJECT)");
+        line(listName + ".add(" + adapterName + ".parse(parser));");
+        middle("else");
+        line(listName + ".add((" + modelTypeName + ") parser.parse(" + modelTypeName + ".class, false));");
+        end();
+        end();
+        line(fieldReference + " = " + listName + ";");
+        middle("else");
+        line(reflectionParsing);
+        end();
+    }
+
+    private void writeSerialize() {
+        final List<AdapterField> sortedFields = new ArrayList<>(fields);
+        // reflection is writing fields in order of keys
+        Collections.sort(sortedFields, new Comparator<AdapterField>() {
+            @Override
+            public int compare(final AdapterField field1, final AdapterField field2) {
+                return field1.getJsonName().compareTo(field2.getJsonName());
+            }
+        });
+        line("@Override");
+        begin("public void serialize(final " + modelName + " value, final " + JSON_GENERATOR + " generator) throws " + IO_EXCEPTION);
+        begin("if (value.getClass() != " + modelName + ".class || " + DATA + ".isNull(value))");
+        line("generator.serialize(value);");
+        line("return;");
+        end();
+        line("generator.writeStartObject();");
+        for (final AdapterField field : sortedFields) {
+            writeSerializeField(field);
+        }
+        line("generator.writeEndObject();");
+        end();
+    }
+
+    private void writeSerializeField(final AdapterField field) {
+        final String fieldReference = "value." + field.getJavaName();
+        final String fieldName = "generator.writeFieldName(" + quote(field.getJsonName()) + ");";
+        if (field.getType().getKind().isPrimitive()) {
+            line(fieldName);
+            writeSerializeValue(field, fieldReference);
+            return;
+        }
+        begin("if (" + fieldReference + " != null)");
+        line(fieldName);
+        if (isWrittenByReflection(field)) {
+            line("generator.serialize(" + fieldReference + ");");
+        } else {
+            begin("if (" + DATA + ".isNull(" + fieldReference + "))");
+            line("generator.writeNull();");
+            middle("else");
+            writeSerializeValue(field, fieldReference);
+            end();
+        }
+        end();
+    }
+
+    private void writeSerializeValue(final AdapterField field, final String fieldReference) {
+        final boolean isPrimitive = field.getType().getKind().isPrimitive();
+        switch (field.getKind()) {
+            case STRING:
+                line("generator.writeString(" + fieldReference + ");");
+                break;
+            case BOOLEAN:
+                line("generator.writeBoolean(" + fieldReference + (isPrimitive ? "" : ".booleanValue()") + ");");
+                break;
+            case INT:
+                line("generator.writeNumber(" + fieldReference + (isPrimitive ? "" : ".intValue()") + ");");
+                break;
+            case LONG:
+                line("generator.writeNumber(" + fieldReference + (isPrimitive ? "" : ".longValue()") + ");");
+                break;
+            case MODEL:
+                line("final " + getAdapterType(field) + " " + getAdapterName(field) + " = " + getAdapterLookup(field) + ";");
+                writeSerializeModel(getAdapterName(field), fieldReference);
+                break;
+            case MODELS_LIST:
+                line("final " + getAdapterType(field) + " " + getAdapterName(field) + " = " + getAdapterLookup(field) + ";");
+                line("generator.writeStartArray();");
+                begin("for (final " + field.getModelType() + " item : " + fieldReference + ")");
+                writeSerializeModel(getAdapterName(field), "item");
+                end();
+                line("generator.writeEndArray();");
+                break;
+            case FLOAT:
+            case DOUBLE:
+            case OTHER:
+            default:
+                line("generator.serialize(" + fieldReference + ");");
+                break;
+        }
+    }
+
+    private void writeSerializeModel(final String adapterName, final String valueReference) {
+        // Java null items of lists are skipped by reflection
+        begin("if (" + adapterName + " != null && " + valueReference + " != null)");
+        line(adapterName + ".serialize(" + valueReference + ", generator);");
+        middle("else");
+        line("generator.serialize(" + valueReference + ");");
+        end();
+    }
+
+    private static boolean isWrittenByReflection(final AdapterField field) {
+        // reflection checks that floating point values are finite
+        return field.getKind() == AdapterField.Kind.FLOAT || field.getKind() == AdapterField.Kind.DOUBLE
+                || field.getKind() == AdapterField.Kind.OTHER;
+    }
+
+    private void writeGetFieldType() {
+        line("");
+        begin("private static " + TYPE + " getFieldType(final Class<?> declaringClass, final String fieldName)");
+        begin("try");
+        line("return declaringClass.getDeclaredField(fieldName).getGenericType();");
+        middle("catch (final NoSuchFieldException exception)");
+        line("throw new IllegalStateException(exception);");
+        end();
+        end();
+    }
+
+    private boolean isClassType(final TypeMirror type) {
+        final Types types = processingEnv.getTypeUtils();
+        return type.getKind().isPrimitive() || types.isSameType(type, types.erasure(type));
+    }
+
+    private String getTypeExpression(final AdapterField field) {
+        return isClassType(field.getType())
+                ? processingEnv.getTypeUtils().erasure(field.getType()) + ".class"
+                : getFieldTypeName(field);
+    }
+
+    private String getCastName(final TypeMirror type) {
+        return type.getKind().isPrimitive()
+                ? processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString()
+                : type.toString();
+    }
+
+    private static String getAdapterName(final AdapterField field) {
+        return field.getJavaName() + "Adapter";
+    }
+
+    private static String getAdapterType(final AdapterField field) {
+        return ADAPTER + "<" + field.getModelType() + ">";
+    }
+
+    private static String getAdapterLookup(final AdapterField field) {
+        return ADAPTERS + ".getAdapter(" + field.getModelType() + ".class)";
+    }
+
+    private static String getFieldTypeName(final AdapterField field) {
+        return field.getJavaName() + "Type";
+    }
+
+    private static String quote(final String value) {
+        final StringBuilder result = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            final char character = value.charAt(i);
+            if (character == '"' || character == '\\') {
+                result.append('\\').append(character);
+            } else if (character < ' ') {
+                result.append(String.format("\\u%04x", (int) character));
+            } else {
+                result.append(character);
+            }
+        }
+        return result.append('"').toString();
+    }
+
+    private void line(final String line) {
+        if (!line.isEmpty()) {
+            for (int i = 0; i < indentLevel; i++) {
+                source.append(INDENT);
+            }
+        }
+        source.append(line).append('\n');
+    }
+
+    private void begin(final String header) {
+        line(header.endsWith(":") ? header : header + " {");
+        indentLevel++;
+    }
+
+    private void middle(final String header) {
+        indentLevel--;
+        line("} " + header + " {");
+        indentLevel++;
+    }
+
+    private void end() {
+        indentLevel--;
+        line("}");
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.google.api.client.json.jackson2;
+
+import android.support.annotation.NonNull;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.JsonGenerator;
+import com.google.api.client.json.JsonParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+/**
+ * Google Json factory that is reading and writing models in binary Smile format (binary JSON of Jackson).
+ * This resides in Google Json lib package in order to take advantage of the package-visible constructors of {@link JacksonParser}
+ * and {@link JacksonGenerator}, so models are parsed by same reflection-based logic as from JSON.
+ * Smile is binary format so only byte streams are supported.
+ */
+public final class SmileJsonFactory extends JsonFactory {
+
+    @NonNull
+    private final JacksonFactory jacksonFactory = new JacksonFactory();
+    @NonNull
+    private final SmileFactory smileFactory = new SmileFactory();
+
+    @NonNull
+    @Override
+    public JsonGenerator createJsonGenerator(@NonNull final OutputStream out, @NonNull final Charset enc) throws IOException {
+        return new JacksonGenerator(jacksonFactory, smileFactory.createGenerator(out));
+    }
+
+    @NonNull
+    @Override
+    public JsonGenerator createJsonGenerator(@NonNull final Writer writer) {
+        throw new UnsupportedOperationException("Smile is binary format");
+    }
+
+    @NonNull
+    @Override
+    public JsonParser createJsonParser(@NonNull final Reader reader) {
+        throw new UnsupportedOperationException("Smile is binary format");
+    }
+
+    @NonNull
+    @Override
+    public JsonParser createJsonParser(@NonNull final InputStream in) throws IOException {
+        return new JacksonParser(jacksonFactory, smileFactory.createParser(in));
+    }
+
+    @NonNull
+    @Override
+    public JsonParser createJsonParser(@NonNull final InputStream in, @NonNull final Charset charset) throws IOException {
+        return createJsonParser(in);
+    }
+
+    @NonNull
+    @Override
+    public JsonParser createJsonParser(@NonNull final String value) {
+        throw new UnsupportedOperationException("Smile is binary format");
+    }
+
+}
@@ -21,11 +21,14 @@ package ru.touchin.templates;
 
 import android.support.annotation.CallSuper;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
 
 import ru.touchin.roboswag.core.log.Lc;
 import ru.touchin.roboswag.core.log.LcGroup;
@@ -43,22 +46,170 @@ public abstract class ApiModel implements Serializable {
      */
     public static final LcGroup API_VALIDATION_LC_GROUP = new LcGroup("API_VALIDATION");
 
+    // code point of collection validation is a caller of public validation method: 0 - method that validates items,
+    // 1 - validateCollectionItems(), 2 - validateCollection() or validateCollections(), 3 - their caller
+    private static final int COLLECTION_CODE_POINT_DEPTH = 3;
+
+    private static volatile int parallelValidationThreshold = Integer.MAX_VALUE;
+
+    /**
+     * Sets size of list starting from which items of list are validated in parallel by {@link #validateCollection}
+     * and summary size of collections starting from which they are validated in parallel by {@link #validateCollections}.
+     * By default parallel validation is disabled. Enable it only if {@link #validate()} of your models is thread-safe.
+     *
+     * @param parallelValidationThreshold Minimum size of list to validate it in parallel.
+     */
+    public static void setParallelValidationThreshold(final int parallelValidationThreshold) {
+        ApiModel.parallelValidationThreshold = parallelValidationThreshold;
+    }
+
     /**
      * Validates list of objects. Use it if objects in list extends {@link ApiModel}.
+     * Invalid items of {@link RandomAccess} lists (e.g. {@link java.util.ArrayList}) are removed in one pass with in-place compaction.
      *
      * @param collection               Collection of items to check;
      * @param collectionValidationRule Rule explaining what to do if invalid items found;
      * @throws ValidationException Exception of validation.
      */
-    @SuppressWarnings({"PMD.PreserveStackTrace", "PMD.CyclomaticComplexity"})
-    // PreserveStackTrace: it's ok - we are logging it on Lc.e()
     public static void validateCollection(@NonNull final Collection collection, @NonNull final CollectionValidationRule collectionValidationRule)
             throws ValidationException {
+        validateCollectionItems(collection, collectionValidationRule, null);
+    }
+
+    /**
+     * Validates several independent collections of model (e.g. different child lists).
+     * If summary size of collections is not less than parallel validation threshold then items of collections are validated in parallel
+     * and nested collections inside of them are validated sequentially.
+     * Invalid items are removed only after all items are validated and collections are processed one by one in order of arguments,
+     * so exception of first invalid collection is thrown and collections after it are not changed, same as in sequential validation.
+     * The only difference is that items of collections after invalid one are validated too (with all side effects of their validation)
+     * and all items of collection are validated even if rule is {@link CollectionValidationRule#EXCEPTION_IF_ANY_INVALID}.
+     *
+     * @param collectionValidationRule Rule explaining what to do if invalid items found;
+     * @param collections              Collections of items to check;
+     * @throws ValidationException Exception of validation.
+     */
+    protected static void validateCollections(@NonNull final CollectionValidationRule collectionValidationRule,
+                                              @NonNull final Collection... collections)
+            throws ValidationException {
+        if (collections.length > 1 && !ParallelValidation.isInsideParallelValidation()) {
+            long summarySize = 0;
+            for (final Collection collection : collections) {
+                summarySize += collection.size();
+            }
+            if (summarySize >= parallelValidationThreshold) {
+                final ValidationException[][] itemsFailures = ParallelValidation.validateCollectionsItems(collections);
+                for (int position = 0; position < collections.length; position++) {
+                    validateCollectionItems(collections[position], collectionValidationRule, itemsFailures[position]);
+                }
+                return;
+            }
+        }
+        for (final Collection collection : collections) {
+            validateCollectionItems(collection, collectionValidationRule, null);
+        }
+    }
+
+    // should be called directly from public validation methods so depth of code point is same for all of them
+    private static void validateCollectionItems(@NonNull final Collection collection,
+                                                @NonNull final CollectionValidationRule collectionValidationRule,
+                                                @Nullable final ValidationException[] itemsFailures)
+            throws ValidationException {
+        if (collection instanceof List && collection instanceof RandomAccess) {
+            validateRandomAccessList((List) collection, collectionValidationRule, itemsFailures);
+        } else {
+            validateCollectionByIterator(collection, collectionValidationRule, itemsFailures);
+        }
+    }
+
+    @SuppressWarnings({"PMD.PreserveStackTrace", "PMD.CyclomaticComplexity", "PMD.NPathComplexity"})
+    // PreserveStackTrace: it's ok - we are logging it on Lc.e()
+    private static void validateRandomAccessList(@NonNull final List list,
+                                                 @NonNull final CollectionValidationRule collectionValidationRule,
+                                                 @Nullable final ValidationException[] itemsFailures)
+            throws ValidationException {
+        final int size = list.size();
+        final ValidationException[] failures;
+        if (itemsFailures != null) {
+            failures = itemsFailures;
+        } else if (size >= parallelValidationThreshold && !ParallelValidation.isInsideParallelValidation()) {
+            failures = ParallelValidation.validateItems(list);
+        } else {
+            failures = null;
+        }
         boolean haveValidItem = false;
+        boolean haveInvalidItem = false;
+        String codePoint = null;
+        int writePosition = 0;
         int position = 0;
+        for (; position < size; position++) {
+            final Object item = list.get(position);
+            if (!(item instanceof ApiModel)) {
+                if (item != null) {
+                    // let's just think that all of items are not ApiModels
+                    break;
+                }
+                moveItem(list, position, writePosition++);
+                continue;
+            }
+
+            final ValidationException exception = failures != null ? failures[position] : ParallelValidation.getValidationException((ApiModel) item);
+            if (exception == null) {
+                haveValidItem = true;
+                moveItem(list, position, writePosition++);
+                continue;
+            }
+            switch (collectionValidationRule) {
+                case EXCEPTION_IF_ANY_INVALID:
+                    throw exception;
+                case EXCEPTION_IF_ALL_INVALID:
+                case REMOVE_INVALID_ITEMS:
+                    haveInvalidItem = true;
+                    if (codePoint == null) {
+                        codePoint = Lc.getCodePoint(null, COLLECTION_CODE_POINT_DEPTH);
+                    }
+                    API_VALIDATION_LC_GROUP.e(exception, "Item %s is invalid at %s", position, codePoint);
+                    break;
+                default:
+                    Lc.assertion("Unexpected rule " + collectionValidationRule);
+                    moveItem(list, position, writePosition++);
+                    break;
+            }
+        }
+        if (writePosition == position) {
+            return;
+        }
+        for (; position < size; position++) {
+            moveItem(list, position, writePosition++);
+        }
+        list.subList(writePosition, size).clear();
+        if (collectionValidationRule == CollectionValidationRule.EXCEPTION_IF_ALL_INVALID && haveInvalidItem && !haveValidItem) {
+            throw new ValidationException("Whole list is invalid", COLLECTION_CODE_POINT_DEPTH);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void moveItem(@NonNull final List list, final int fromPosition, final int toPosition) {
+        // not touching list while nothing is removed so unmodifiable lists with valid items are still supported
+        if (fromPosition != toPosition) {
+            list.set(toPosition, list.get(fromPosition));
+        }
+    }
+
+    @SuppressWarnings({"PMD.PreserveStackTrace", "PMD.CyclomaticComplexity", "PMD.NPathComplexity"})
+    // PreserveStackTrace: it's ok - we are logging it on Lc.e()
+    private static void validateCollectionByIterator(@NonNull final Collection collection,
+                                                     @NonNull final CollectionValidationRule collectionValidationRule,
+                                                     @Nullable final ValidationException[] itemsFailures)
+            throws ValidationException {
+        boolean haveValidItem = false;
+        String codePoint = null;
+        int position = 0;
+        int iterationPosition = -1;
         final Iterator iterator = collection.iterator();
         while (iterator.hasNext()) {
             final Object item = iterator.next();
+            iterationPosition++;
             if (!(item instanceof ApiModel)) {
                 if (item != null) {
                     // let's just think that all of items are not ApiModels
@@ -67,28 +218,37 @@ public abstract class ApiModel implements Serializable {
                 continue;
             }
 
-            try {
-                ((ApiModel) item).validate();
+            final ValidationException exception = itemsFailures != null
+                    ? itemsFailures[iterationPosition]
+                    : ParallelValidation.getValidationException((ApiModel) item);
+            if (exception == null) {
                 haveValidItem = true;
-            } catch (final ValidationException exception) {
-                switch (collectionValidationRule) {
-                    case EXCEPTION_IF_ANY_INVALID:
-                        throw exception;
-                    case EXCEPTION_IF_ALL_INVALID:
-                        iterator.remove();
-                        API_VALIDATION_LC_GROUP.e(exception, "Item %s is invalid at " + Lc.getCodePoint(null, 1), position);
-                        if (!iterator.hasNext() && !haveValidItem) {
-                            throw new ValidationException("Whole list is invalid at " + Lc.getCodePoint(null, 1));
-                        }
-                        break;
-                    case REMOVE_INVALID_ITEMS:
-                        iterator.remove();
-                        API_VALIDATION_LC_GROUP.e(exception, "Item %s is invalid at " + Lc.getCodePoint(null, 1), position);
-                        break;
-                    default:
-                        Lc.assertion("Unexpected rule " + collectionValidationRule);
-                        break;
-                }
+                position++;
+                continue;
+            }
+            switch (collectionValidationRule) {
+                case EXCEPTION_IF_ANY_INVALID:
+                    throw exception;
+                case EXCEPTION_IF_ALL_INVALID:
+                    iterator.remove();
+                    if (codePoint == null) {
+                        codePoint = Lc.getCodePoint(null, COLLECTION_CODE_POINT_DEPTH);
+                    }
+                    API_VALIDATION_LC_GROUP.e(exception, "Item %s is invalid at %s", position, codePoint);
+                    if (!iterator.hasNext() && !haveValidItem) {
+                        throw new ValidationException("Whole list is invalid", COLLECTION_CODE_POINT_DEPTH);
+                    }
+                    break;
+                case REMOVE_INVALID_ITEMS:
+                    iterator.remove();
+                    if (codePoint == null) {
+                        codePoint = Lc.getCodePoint(null, COLLECTION_CODE_POINT_DEPTH);
+                    }
+                    API_VALIDATION_LC_GROUP.e(exception, "Item %s is invalid at %s", position, codePoint);
+                    break;
+                default:
+                    Lc.assertion("Unexpected rule " + collectionValidationRule);
+                    break;
             }
             position++;
         }
@@ -103,7 +263,7 @@ public abstract class ApiModel implements Serializable {
     protected static void validateCollectionNotEmpty(@NonNull final Collection collection)
             throws ValidationException {
         if (collection.isEmpty()) {
-            throw new ValidationException("List is empty at " + Lc.getCodePoint(null, 1));
+            throw new ValidationException("List is empty", 1);
         }
     }
 
@@ -117,6 +277,94 @@ public abstract class ApiModel implements Serializable {
         //do nothing
     }
 
+    /**
+     * Validator of collection items one by one. Use it to validate items while they are being parsed
+     * so invalid items are just not added to result collection instead of removing them later.
+     */
+    public static class CollectionItemsValidator {
+
+        @NonNull
+        private final CollectionValidationRule collectionValidationRule;
+        private int position;
+        private boolean haveValidItem;
+        private boolean haveInvalidItem;
+        private boolean finished;
+        private long validationNanos;
+
+        public CollectionItemsValidator(@NonNull final CollectionValidationRule collectionValidationRule) {
+            this.collectionValidationRule = collectionValidationRule;
+        }
+
+        /**
+         * Validates next item of collection.
+         *
+         * @param item Item to validate;
+         * @return True if item should be added to collection, false if it is invalid and should be skipped;
+         * @throws ValidationException Exception of validation if rule is {@link CollectionValidationRule#EXCEPTION_IF_ANY_INVALID}.
+         */
+        @SuppressWarnings("PMD.PreserveStackTrace")
+        // PreserveStackTrace: it's ok - we are logging it on Lc.e()
+        public boolean validateItem(@Nullable final Object item) throws ValidationException {
+            final int itemPosition = position++;
+            if (!(item instanceof ApiModel)) {
+                return true;
+            }
+            final long startTime = System.nanoTime();
+            try {
+                ((ApiModel) item).validate();
+                haveValidItem = true;
+                return true;
+            } catch (final ValidationException exception) {
+                switch (collectionValidationRule) {
+                    case EXCEPTION_IF_ANY_INVALID:
+                        throw exception;
+                    case EXCEPTION_IF_ALL_INVALID:
+                    case REMOVE_INVALID_ITEMS:
+                        haveInvalidItem = true;
+                        API_VALIDATION_LC_GROUP.e(exception, "Item %s is invalid", itemPosition);
+                        return false;
+                    default:
+                        Lc.assertion("Unexpected rule " + collectionValidationRule);
+                        return true;
+                }
+            } finally {
+                validationNanos += System.nanoTime() - startTime;
+            }
+        }
+
+        /**
+         * Should be called after all items of collection validated.
+         *
+         * @throws ValidationException Exception of validation if rule is {@link CollectionValidationRule#EXCEPTION_IF_ALL_INVALID}
+         *                             and all items are invalid.
+         */
+        public void finish() throws ValidationException {
+            finished = true;
+            if (collectionValidationRule == CollectionValidationRule.EXCEPTION_IF_ALL_INVALID && haveInvalidItem && !haveValidItem) {
+                throw new ValidationException("Whole list is invalid", 1);
+            }
+        }
+
+        /**
+         * Returns if all items of collection were validated by this validator.
+         *
+         * @return True if validation is finished.
+         */
+        public boolean isFinished() {
+            return finished;
+        }
+
+        /**
+         * Returns time spent on items validation.
+         *
+         * @return Time in nanoseconds.
+         */
+        public long getValidationNanos() {
+            return validationNanos;
+        }
+
+    }
+
     public enum CollectionValidationRule {
         EXCEPTION_IF_ANY_INVALID,
         EXCEPTION_IF_ALL_INVALID,
@@ -125,11 +373,68 @@ public abstract class ApiModel implements Serializable {
 
     /**
      * Class of exceptions throws during {@link ApiModel} validation.
+     * Exception could be created with depth of code point in stack trace instead of code point itself.
+     * In that case code point is resolved from stack trace of exception only when message is read,
+     * so creation of exceptions which are just skipped (e.g. by {@link CollectionValidationRule#REMOVE_INVALID_ITEMS}) is cheap.
      */
     public static class ValidationException extends IOException {
 
+        private static final int NO_CODE_POINT = -1;
+
+        @NonNull
+        private final String reason;
+        private final int codePointDepth;
+        @Nullable
+        private transient volatile String message;
+
         public ValidationException(@NonNull final String reason) {
+            this(reason, NO_CODE_POINT);
+        }
+
+        /**
+         * Creates exception with code point that will be added to message lazily.
+         *
+         * @param reason         Reason of exception;
+         * @param codePointDepth Depth of code point in stack trace: 0 - method that creates exception, 1 - its caller etc.
+         */
+        public ValidationException(@NonNull final String reason, final int codePointDepth) {
             super(reason);
+            this.reason = reason;
+            this.codePointDepth = codePointDepth;
+        }
+
+        /**
+         * Returns reason of exception without code point.
+         *
+         * @return Reason of exception.
+         */
+        @NonNull
+        public String getReason() {
+            return reason;
+        }
+
+        @NonNull
+        @Override
+        public String getMessage() {
+            if (codePointDepth == NO_CODE_POINT) {
+                return reason;
+            }
+            String result = message;
+            if (result == null) {
+                result = reason + " at " + resolveCodePoint();
+                message = result;
+            }
+            return result;
+        }
+
+        @NonNull
+        private String resolveCodePoint() {
+            final StackTraceElement[] stackTrace = getStackTrace();
+            if (codePointDepth >= stackTrace.length) {
+                return "unknown";
+            }
+            final StackTraceElement traceElement = stackTrace[codePointDepth];
+            return traceElement.getMethodName() + '(' + traceElement.getFileName() + ':' + traceElement.getLineNumber() + ')';
         }
 
     }
@@ -0,0 +1,205 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Validates {@link ApiModel}s in parallel on shared pool of threads.
+ * Calling thread is validating part of items itself so it is not just waiting for pool.
+ * Validation that is started inside of parallel validation (nested models) is always sequential,
+ * so pool threads are never waiting for pool itself.
+ * ForkJoinPool is not used as it is available only from API 21.
+ */
+final class ParallelValidation {
+
+    private static final int PARALLELISM = Math.max(2, Runtime.getRuntime().availableProcessors());
+    @NonNull
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(PARALLELISM - 1, new ValidationThreadFactory());
+    @NonNull
+    private static final ThreadLocal<Boolean> INSIDE_PARALLEL_VALIDATION = new ThreadLocal<>();
+
+    /**
+     * Returns if current thread is already validating something in parallel with other threads.
+     *
+     * @return True if validation should be sequential.
+     */
+    static boolean isInsideParallelValidation() {
+        return INSIDE_PARALLEL_VALIDATION.get() != null;
+    }
+
+    /**
+     * Validates items of independent collections in parallel. Collections themselves are not changed.
+     *
+     * @param collections Collections to validate;
+     * @return Arrays of validation exceptions by item positions (in order of iteration) for each collection.
+     * Null at position means that item is valid or it is not {@link ApiModel}.
+     */
+    @NonNull
+    static ApiModel.ValidationException[][] validateCollectionsItems(@NonNull final Collection[] collections) {
+        final ApiModel.ValidationException[][] failures = new ApiModel.ValidationException[collections.length][];
+        final List<Future<?>> futures = new ArrayList<>(collections.length);
+        for (int position = 1; position < collections.length; position++) {
+            final int collectionPosition = position;
+            futures.add(EXECUTOR.submit(() -> validateCollectionItems(collections, failures, collectionPosition)));
+        }
+        if (collections.length > 0) {
+            validateCollectionItems(collections, failures, 0);
+        }
+        waitFor(futures);
+        return failures;
+    }
+
+    private static void validateCollectionItems(@NonNull final Collection[] collections, @NonNull final ApiModel.ValidationException[][] failures,
+                                                final int position) {
+        final boolean wasInside = isInsideParallelValidation();
+        INSIDE_PARALLEL_VALIDATION.set(Boolean.TRUE);
+        try {
+            final ApiModel.ValidationException[] collectionFailures = new ApiModel.ValidationException[collections[position].size()];
+            int itemPosition = 0;
+            for (final Object item : collections[position]) {
+                if (item instanceof ApiModel) {
+                    collectionFailures[itemPosition] = getValidationException((ApiModel) item);
+                } else if (item != null) {
+                    // same as ApiModel.validateCollection() does: all of items are not ApiModels
+                    break;
+                }
+                itemPosition++;
+            }
+            failures[position] = collectionFailures;
+        } finally {
+            if (!wasInside) {
+                INSIDE_PARALLEL_VALIDATION.remove();
+            }
+        }
+    }
+
+    /**
+     * Validates items of list in parallel.
+     *
+     * @param items Items to validate. Only {@link ApiModel} items are validated;
+     * @return Array of validation exceptions by item positions. Null at position means that item is valid or it is not {@link ApiModel}.
+     */
+    @NonNull
+    static ApiModel.ValidationException[] validateItems(@NonNull final List<?> items) {
+        final int size = items.size();
+        final ApiModel.ValidationException[] failures = new ApiModel.ValidationException[size];
+        final int chunkSize = (size + PARALLELISM - 1) / PARALLELISM;
+        final List<Future<?>> futures = new ArrayList<>(PARALLELISM - 1);
+        for (int start = chunkSize; start < size; start += chunkSize) {
+            final int chunkStart = start;
+            futures.add(EXECUTOR.submit(() -> validateRange(items, failures, chunkStart, Math.min(chunkStart + chunkSize, size))));
+        }
+        validateRange(items, failures, 0, Math.min(chunkSize, size));
+        waitFor(futures);
+        return failures;
+    }
+
+    private static void waitFor(@NonNull final List<Future<?>> futures) {
+        boolean interrupted = false;
+        for (final Future<?> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (final InterruptedException exception) {
+                    // items array is shared with running tasks so we should wait for them anyway
+                    interrupted = true;
+                } catch (final ExecutionException exception) {
+                    final Throwable cause = exception.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new IllegalStateException(cause);
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void validateRange(@NonNull final List<?> items, @NonNull final ApiModel.ValidationException[] failures,
+                                      final int start, final int end) {
+        final boolean wasInside = isInsideParallelValidation();
+        INSIDE_PARALLEL_VALIDATION.set(Boolean.TRUE);
+        try {
+            for (int position = start; position < end; position++) {
+                final Object item = items.get(position);
+                if (item instanceof ApiModel) {
+                    failures[position] = getValidationException((ApiModel) item);
+                }
+            }
+        } finally {
+            if (!wasInside) {
+                INSIDE_PARALLEL_VALIDATION.remove();
+            }
+        }
+    }
+
+    /**
+     * Validates model.
+     *
+     * @param model Model to validate;
+     * @return Exception of validation or null if model is valid.
+     */
+    @Nullable
+    static ApiModel.ValidationException getValidationException(@NonNull final ApiModel model) {
+        try {
+            model.validate();
+            return null;
+        } catch (final ApiModel.ValidationException exception) {
+            return exception;
+        }
+    }
+
+    private ParallelValidation() {
+    }
+
+    private static class ValidationThreadFactory implements ThreadFactory {
+
+        @NonNull
+        private final AtomicInteger threadsCount = new AtomicInteger();
+
+        @NonNull
+        @Override
+        public Thread newThread(@NonNull final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "ApiModelValidation-" + threadsCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
@@ -49,6 +49,7 @@ import ru.touchin.roboswag.core.log.LcGroup;
 import ru.touchin.roboswag.core.log.LcLevel;
 import ru.touchin.roboswag.core.log.LogProcessor;
 import ru.touchin.roboswag.core.utils.ShouldNotHappenException;
+import ru.touchin.templates.storables.JsonValueCache;
 import rx.Scheduler;
 import rx.Subscription;
 import rx.android.plugins.RxAndroidPlugins;
@@ -120,6 +121,18 @@ public abstract class TouchinApp extends Application {
         }
     }
 
+    @Override
+    public void onTrimMemory(final int level) {
+        super.onTrimMemory(level);
+        JsonValueCache.trimMemory(level);
+    }
+
+    @Override
+    public void onLowMemory() {
+        super.onLowMemory();
+        JsonValueCache.clear();
+    }
+
     private void enableStrictMode() {
         StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
                 .detectAll()
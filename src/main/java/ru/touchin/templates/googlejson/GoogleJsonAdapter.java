@@ -0,0 +1,59 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.googlejson;
+
+import android.support.annotation.NonNull;
+
+import com.google.api.client.json.JsonGenerator;
+import com.google.api.client.json.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * Parser and serializer of specific model class which is working without reflection.
+ * Adapters are generated at compile time by 'processor' module for {@link GoogleJsonModel}s with name '[model binary name]$$GoogleJsonAdapter'
+ * and public no-arguments constructor or they could be registered manually by {@link GoogleJsonAdapters#register(Class, GoogleJsonAdapter)}.
+ * Adapter should produce same result as reflection-based parsing of model's {@link com.google.api.client.util.Key} fields.
+ *
+ * @param <T> Type of model.
+ */
+public interface GoogleJsonAdapter<T> {
+
+    /**
+     * Parses model. Parser is either not started or its current token is start of model's value (e.g. if model is a field of other model).
+     * After parsing current token of parser should be the last token of model's value.
+     *
+     * @param parser Parser to read model from;
+     * @return Parsed model;
+     * @throws IOException Exception during parsing.
+     */
+    @NonNull
+    T parse(@NonNull JsonParser parser) throws IOException;
+
+    /**
+     * Serializes model.
+     *
+     * @param value     Model to serialize;
+     * @param generator Generator to write model to;
+     * @throws IOException Exception during serialization.
+     */
+    void serialize(@NonNull T value, @NonNull JsonGenerator generator) throws IOException;
+
+}
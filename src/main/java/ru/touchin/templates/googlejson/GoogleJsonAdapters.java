@@ -0,0 +1,108 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.googlejson;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.api.client.json.JsonGenerator;
+import com.google.api.client.json.JsonParser;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import ru.touchin.roboswag.core.log.Lc;
+
+/**
+ * Registry of {@link GoogleJsonAdapter}s by model classes.
+ * Generated adapters are looked up by name once per class and result (including absence of adapter) is cached.
+ */
+public final class GoogleJsonAdapters {
+
+    public static final String GENERATED_ADAPTER_SUFFIX = "$$GoogleJsonAdapter";
+
+    @NonNull
+    private static final GoogleJsonAdapter<Object> NO_ADAPTER = new GoogleJsonAdapter<Object>() {
+        @NonNull
+        @Override
+        public Object parse(@NonNull final JsonParser parser) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void serialize(@NonNull final Object value, @NonNull final JsonGenerator generator) {
+            throw new UnsupportedOperationException();
+        }
+    };
+    @NonNull
+    private static final ConcurrentMap<Class<?>, GoogleJsonAdapter<?>> ADAPTERS = new ConcurrentHashMap<>();
+
+    /**
+     * Registers adapter of model class. It replaces generated adapter.
+     *
+     * @param modelClass Class of model;
+     * @param adapter    Adapter of model;
+     * @param <T>        Type of model.
+     */
+    public static <T> void register(@NonNull final Class<T> modelClass, @NonNull final GoogleJsonAdapter<T> adapter) {
+        ADAPTERS.put(modelClass, adapter);
+    }
+
+    /**
+     * Returns adapter of model class.
+     *
+     * @param modelClass Class of model;
+     * @param <T>        Type of model;
+     * @return Registered or generated adapter or null if class has no adapter.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public static <T> GoogleJsonAdapter<T> getAdapter(@NonNull final Class<T> modelClass) {
+        GoogleJsonAdapter<?> adapter = ADAPTERS.get(modelClass);
+        if (adapter == null) {
+            adapter = findGeneratedAdapter(modelClass);
+            final GoogleJsonAdapter<?> previousAdapter = ADAPTERS.putIfAbsent(modelClass, adapter);
+            if (previousAdapter != null) {
+                adapter = previousAdapter;
+            }
+        }
+        return adapter != NO_ADAPTER ? (GoogleJsonAdapter<T>) adapter : null;
+    }
+
+    @NonNull
+    private static GoogleJsonAdapter<?> findGeneratedAdapter(@NonNull final Class<?> modelClass) {
+        if (modelClass.isPrimitive() || modelClass.isArray() || !GoogleJsonModel.class.isAssignableFrom(modelClass)) {
+            return NO_ADAPTER;
+        }
+        try {
+            final Class<?> adapterClass = Class.forName(modelClass.getName() + GENERATED_ADAPTER_SUFFIX, true, modelClass.getClassLoader());
+            return (GoogleJsonAdapter<?>) adapterClass.newInstance();
+        } catch (final ClassNotFoundException exception) {
+            return NO_ADAPTER;
+        } catch (final InstantiationException | IllegalAccessException | ClassCastException exception) {
+            Lc.assertion(exception);
+            return NO_ADAPTER;
+        }
+    }
+
+    private GoogleJsonAdapters() {
+    }
+
+}
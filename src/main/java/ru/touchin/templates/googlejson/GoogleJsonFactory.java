@@ -20,21 +20,42 @@
 package ru.touchin.templates.googlejson;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.google.api.client.http.json.JsonHttpContent;
+import com.google.api.client.json.JsonGenerator;
+import com.google.api.client.json.JsonParser;
 import com.google.api.client.json.jackson2.JacksonFactory;
+import com.google.api.client.util.ClassInfo;
+import com.google.api.client.util.Data;
+import com.google.api.client.util.FieldInfo;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
+import okhttp3.MediaType;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
 import retrofit2.Converter;
 import retrofit2.Retrofit;
+import ru.touchin.roboswag.core.log.Lc;
 import ru.touchin.templates.retrofit.JsonRequestBodyConverter;
 import ru.touchin.templates.retrofit.JsonResponseBodyConverter;
+import rx.Single;
+import rx.schedulers.Schedulers;
 
 /**
  * Created by Gavriil Sitnikov on 2/06/2016.
@@ -42,12 +63,100 @@ import ru.touchin.templates.retrofit.JsonResponseBodyConverter;
  */
 public class GoogleJsonFactory extends Converter.Factory {
 
+    /**
+     * Resolves and caches reflection metadata (fields info) of model classes and of all models that are reachable from their fields.
+     * Call it at application start with classes of responses so first parsing of them will not spend time on reflection.
+     * Resolution is done on computation scheduler.
+     *
+     * @param modelClasses Classes of models to resolve metadata for;
+     * @return {@link Single} that emits time of resolution in nanoseconds by requested classes.
+     */
+    @NonNull
+    public static Single<Map<Class<?>, Long>> warmUp(@NonNull final Collection<Class<?>> modelClasses) {
+        return Single
+                .fromCallable(() -> {
+                    final Map<Class<?>, Long> resolutionTimes = new LinkedHashMap<>();
+                    final Set<Class<?>> resolvedClasses = new HashSet<>();
+                    for (final Class<?> modelClass : modelClasses) {
+                        final long startTime = System.nanoTime();
+                        resolveTypeMetadata(modelClass, resolvedClasses);
+                        final long resolutionTime = System.nanoTime() - startTime;
+                        resolutionTimes.put(modelClass, resolutionTime);
+                        Lc.d("Google Json metadata of %s resolved in %s ms", modelClass.getName(), TimeUnit.NANOSECONDS.toMillis(resolutionTime));
+                    }
+                    return resolutionTimes;
+                })
+                .subscribeOn(Schedulers.computation());
+    }
+
+    private static void resolveTypeMetadata(@NonNull final Type type, @NonNull final Set<Class<?>> resolvedClasses) {
+        if (type instanceof ParameterizedType) {
+            resolveTypeMetadata(((ParameterizedType) type).getRawType(), resolvedClasses);
+            for (final Type typeArgument : ((ParameterizedType) type).getActualTypeArguments()) {
+                resolveTypeMetadata(typeArgument, resolvedClasses);
+            }
+        } else if (type instanceof GenericArrayType) {
+            resolveTypeMetadata(((GenericArrayType) type).getGenericComponentType(), resolvedClasses);
+        } else if (type instanceof WildcardType) {
+            for (final Type upperBound : ((WildcardType) type).getUpperBounds()) {
+                resolveTypeMetadata(upperBound, resolvedClasses);
+            }
+        } else if (type instanceof Class) {
+            resolveClassMetadata((Class<?>) type, resolvedClasses);
+        }
+    }
+
+    private static void resolveClassMetadata(@NonNull final Class<?> clazz, @NonNull final Set<Class<?>> resolvedClasses) {
+        if (clazz.isArray()) {
+            resolveTypeMetadata(clazz.getComponentType(), resolvedClasses);
+            return;
+        }
+        if (Data.isPrimitive(clazz) || clazz.isInterface() || clazz.getName().startsWith("java.") || !resolvedClasses.add(clazz)) {
+            return;
+        }
+        // ClassInfo is cached inside of Google Json lib and it is used during parsing
+        final ClassInfo classInfo = ClassInfo.of(clazz);
+        if (clazz.isEnum()) {
+            return;
+        }
+        for (final String fieldName : classInfo.getNames()) {
+            final FieldInfo fieldInfo = classInfo.getFieldInfo(fieldName);
+            if (fieldInfo != null) {
+                resolveTypeMetadata(fieldInfo.getGenericType(), resolvedClasses);
+            }
+        }
+    }
+
+    private final boolean preferGeneratedAdapters;
+
+    public GoogleJsonFactory() {
+        this(false);
+    }
+
+    /**
+     * Creates factory.
+     *
+     * @param preferGeneratedAdapters If true then models are parsed and serialized by {@link GoogleJsonAdapter}s if they are exist
+     *                                and by reflection otherwise. See {@link GoogleJsonAdapters}.
+     */
+    public GoogleJsonFactory(final boolean preferGeneratedAdapters) {
+        super();
+        this.preferGeneratedAdapters = preferGeneratedAdapters;
+    }
+
     @NonNull
     @Override
     public Converter<ResponseBody, ?> responseBodyConverter(@NonNull final Type type,
                                                             @NonNull final Annotation[] annotations,
                                                             @NonNull final Retrofit retrofit) {
-        return new GoogleJsonResponseBodyConverter<>(type);
+        final String endpointName = JsonResponseBodyConverter.getEndpointName(annotations);
+        if (preferGeneratedAdapters && type instanceof Class) {
+            final GoogleJsonAdapter<?> adapter = GoogleJsonAdapters.getAdapter((Class<?>) type);
+            if (adapter != null) {
+                return new GoogleJsonAdapterResponseBodyConverter<>(adapter, endpointName);
+            }
+        }
+        return new GoogleJsonResponseBodyConverter<>(type, endpointName);
     }
 
     @NonNull
@@ -56,16 +165,28 @@ public class GoogleJsonFactory extends Converter.Factory {
                                                           @NonNull final Annotation[] parameterAnnotations,
                                                           @NonNull final Annotation[] methodAnnotations,
                                                           @NonNull final Retrofit retrofit) {
+        if (preferGeneratedAdapters && type instanceof Class) {
+            final GoogleJsonAdapter<?> adapter = GoogleJsonAdapters.getAdapter((Class<?>) type);
+            if (adapter != null) {
+                return new GoogleJsonAdapterRequestBodyConverter<>(adapter);
+            }
+        }
         return new GoogleJsonRequestBodyConverter<>();
     }
 
     public static class GoogleJsonResponseBodyConverter<T> extends JsonResponseBodyConverter<T> {
 
+        private static final Charset UTF_8 = Charset.forName("UTF-8");
+
         @NonNull
         private final Type type;
 
         public GoogleJsonResponseBodyConverter(@NonNull final Type type) {
-            super();
+            this(type, null);
+        }
+
+        public GoogleJsonResponseBodyConverter(@NonNull final Type type, @Nullable final String endpointName) {
+            super(endpointName);
             this.type = type;
         }
 
@@ -73,7 +194,13 @@ public class GoogleJsonFactory extends Converter.Factory {
         @NonNull
         @Override
         protected T parseResponse(@NonNull final ResponseBody value) throws IOException {
-            return (T) GoogleJsonModel.DEFAULT_JSON_FACTORY.createJsonParser(value.charStream()).parse(type, true);
+            final MediaType contentType = value.contentType();
+            final Charset charset = contentType != null ? contentType.charset(UTF_8) : UTF_8;
+            // Jackson detects UTF encodings of bytes itself so reader is needed only for other charsets
+            final JsonParser parser = UTF_8.equals(charset)
+                    ? GoogleJsonModel.DEFAULT_JSON_FACTORY.createJsonParser(value.byteStream(), charset)
+                    : GoogleJsonModel.DEFAULT_JSON_FACTORY.createJsonParser(value.charStream());
+            return (T) parser.parse(type, true);
         }
 
     }
@@ -83,7 +210,78 @@ public class GoogleJsonFactory extends Converter.Factory {
         @Override
         protected void writeValueToByteArray(@NonNull final T value, @NonNull final ByteArrayOutputStream byteArrayOutputStream)
                 throws IOException {
-            new JsonHttpContent(GoogleJsonModel.DEFAULT_JSON_FACTORY, value).writeTo(byteArrayOutputStream);
+            writeValueToStream(value, byteArrayOutputStream);
+        }
+
+        @Override
+        protected void writeValueToStream(@NonNull final T value, @NonNull final OutputStream outputStream) throws IOException {
+            new JsonHttpContent(GoogleJsonModel.DEFAULT_JSON_FACTORY, value).writeTo(outputStream);
+        }
+
+    }
+
+    /**
+     * Converter that is parsing models by {@link GoogleJsonAdapter} without reflection.
+     *
+     * @param <T> Type of model.
+     */
+    public static class GoogleJsonAdapterResponseBodyConverter<T> extends JsonResponseBodyConverter<T> {
+
+        private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+        @NonNull
+        private final GoogleJsonAdapter<T> adapter;
+
+        public GoogleJsonAdapterResponseBodyConverter(@NonNull final GoogleJsonAdapter<T> adapter, @Nullable final String endpointName) {
+            super(endpointName);
+            this.adapter = adapter;
+        }
+
+        @NonNull
+        @Override
+        protected T parseResponse(@NonNull final ResponseBody value) throws IOException {
+            final MediaType contentType = value.contentType();
+            final Charset charset = contentType != null ? contentType.charset(UTF_8) : UTF_8;
+            final JsonParser parser = UTF_8.equals(charset)
+                    ? GoogleJsonModel.DEFAULT_JSON_FACTORY.createJsonParser(value.byteStream(), charset)
+                    : GoogleJsonModel.DEFAULT_JSON_FACTORY.createJsonParser(value.charStream());
+            try {
+                return adapter.parse(parser);
+            } finally {
+                parser.close();
+            }
+        }
+
+    }
+
+    /**
+     * Converter that is serializing models by {@link GoogleJsonAdapter} without reflection.
+     *
+     * @param <T> Type of model.
+     */
+    public static class GoogleJsonAdapterRequestBodyConverter<T> extends JsonRequestBodyConverter<T> {
+
+        private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+        @NonNull
+        private final GoogleJsonAdapter<T> adapter;
+
+        public GoogleJsonAdapterRequestBodyConverter(@NonNull final GoogleJsonAdapter<T> adapter) {
+            super();
+            this.adapter = adapter;
+        }
+
+        @Override
+        protected void writeValueToByteArray(@NonNull final T value, @NonNull final ByteArrayOutputStream byteArrayOutputStream)
+                throws IOException {
+            writeValueToStream(value, byteArrayOutputStream);
+        }
+
+        @Override
+        protected void writeValueToStream(@NonNull final T value, @NonNull final OutputStream outputStream) throws IOException {
+            final JsonGenerator generator = GoogleJsonModel.DEFAULT_JSON_FACTORY.createJsonGenerator(outputStream, UTF_8);
+            adapter.serialize(value, generator);
+            generator.flush();
         }
 
     }
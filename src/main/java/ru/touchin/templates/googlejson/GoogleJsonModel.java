@@ -25,7 +25,6 @@ import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.jackson2.JacksonFactory;
 import com.google.api.client.util.Data;
 
-import ru.touchin.roboswag.core.log.Lc;
 import ru.touchin.templates.ApiModel;
 
 /**
@@ -79,10 +78,10 @@ public abstract class GoogleJsonModel extends ApiModel {
      */
     protected static void validateNotNull(@Nullable final Object object) throws ValidationException {
         if (isNull(object)) {
-            throw new ValidationException("Not nullable object is null at " + Lc.getCodePoint(null, 1));
+            throw new ValidationException("Not nullable object is null", 1);
         }
         if (isMissed(object)) {
-            throw new ValidationException("Not nullable object is missed at " + Lc.getCodePoint(null, 1));
+            throw new ValidationException("Not nullable object is missed", 1);
         }
     }
 
@@ -94,7 +93,7 @@ public abstract class GoogleJsonModel extends ApiModel {
      */
     protected static void validateNotMissed(@Nullable final Object object) throws ValidationException {
         if (isMissed(object)) {
-            throw new ValidationException("Object missed at " + Lc.getCodePoint(null, 1));
+            throw new ValidationException("Object missed", 1);
         }
     }
 
@@ -106,7 +105,7 @@ public abstract class GoogleJsonModel extends ApiModel {
      */
     protected static void validateMissedOrNotNull(@Nullable final Object object) throws ValidationException {
         if (isNull(object)) {
-            throw new ValidationException("Not null or not missed object is null at " + Lc.getCodePoint(null, 1));
+            throw new ValidationException("Not null or not missed object is null", 1);
         }
     }
 
@@ -22,20 +22,31 @@ package ru.touchin.templates.googlejson;
 import android.content.SharedPreferences;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.util.Base64;
 
-import com.google.api.client.http.json.JsonHttpContent;
+import com.google.api.client.json.JsonGenerator;
+import com.google.api.client.json.JsonParser;
+import com.google.api.client.json.jackson2.SmileJsonFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Type;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 
 import ru.touchin.roboswag.components.utils.storables.PreferenceStore;
 import ru.touchin.roboswag.core.observables.storable.Converter;
 import ru.touchin.roboswag.core.observables.storable.Storable;
+import ru.touchin.roboswag.core.observables.storable.Store;
 import ru.touchin.roboswag.core.observables.storable.concrete.NonNullStorable;
 import ru.touchin.roboswag.core.utils.ShouldNotHappenException;
+import ru.touchin.templates.storables.AppendLogList;
+import ru.touchin.templates.storables.FileStore;
+import ru.touchin.templates.storables.JsonValueCache;
+import ru.touchin.templates.storables.WriteBehindStorable;
 
 /**
  * Created by Gavriil Sitnikov on 23/08/2016.
@@ -47,8 +58,8 @@ public final class GoogleJsonPreferences {
     public static <T> Storable<String, T, String> jsonStorable(@NonNull final String name,
                                                                @NonNull final Class<T> jsonClass,
                                                                @NonNull final SharedPreferences preferences) {
-        return new Storable.Builder<String, T, String>(name, jsonClass, String.class, new PreferenceStore<>(preferences), new JsonConverter<>())
-                .setObserveStrategy(Storable.ObserveStrategy.CACHE_ACTUAL_VALUE)
+        return JsonValueCache
+                .createStorableBuilder(name, jsonClass, new PreferenceStore<>(preferences), new JsonConverter<T>(), false)
                 .build();
     }
 
@@ -57,8 +68,8 @@ public final class GoogleJsonPreferences {
                                                                       @NonNull final Class<T> jsonClass,
                                                                       @NonNull final SharedPreferences preferences,
                                                                       @NonNull final T defaultValue) {
-        return new Storable.Builder<String, T, String>(name, jsonClass, String.class, new PreferenceStore<>(preferences), new JsonConverter<>())
-                .setObserveStrategy(Storable.ObserveStrategy.CACHE_ACTUAL_VALUE)
+        return JsonValueCache
+                .createStorableBuilder(name, jsonClass, new PreferenceStore<>(preferences), new JsonConverter<T>(), false)
                 .setDefaultValue(defaultValue)
                 .build();
     }
@@ -67,8 +78,8 @@ public final class GoogleJsonPreferences {
     public static <T> Storable<String, List<T>, String> jsonListStorable(@NonNull final String name,
                                                                          @NonNull final Class<T> jsonListItemClass,
                                                                          @NonNull final SharedPreferences preferences) {
-        return new Storable.Builder<>(name, List.class, String.class, new PreferenceStore<>(preferences), new JsonListConverter<>(jsonListItemClass))
-                .setObserveStrategy(Storable.ObserveStrategy.CACHE_ACTUAL_VALUE)
+        return JsonValueCache
+                .createStorableBuilder(name, List.class, new PreferenceStore<>(preferences), new JsonListConverter<>(jsonListItemClass), false)
                 .build();
     }
 
@@ -77,12 +88,190 @@ public final class GoogleJsonPreferences {
                                                                                 @NonNull final Class<T> jsonListItemClass,
                                                                                 @NonNull final SharedPreferences preferences,
                                                                                 @NonNull final List<T> defaultValue) {
-        return new Storable.Builder<>(name, List.class, String.class, new PreferenceStore<>(preferences), new JsonListConverter<>(jsonListItemClass))
-                .setObserveStrategy(Storable.ObserveStrategy.CACHE_ACTUAL_VALUE)
+        return JsonValueCache
+                .createStorableBuilder(name, List.class, new PreferenceStore<>(preferences), new JsonListConverter<>(jsonListItemClass), false)
                 .setDefaultValue(defaultValue)
                 .build();
     }
 
+    /**
+     * Returns {@link Storable} that is storing object in binary Smile format packed into Base64 string.
+     * Values that are stored as JSON by {@link #jsonStorable} are read transparently and are rewritten in binary format on next set.
+     * Requires 'com.fasterxml.jackson.dataformat:jackson-dataformat-smile' dependency.
+     */
+    @NonNull
+    public static <T> Storable<String, T, String> binaryStorable(@NonNull final String name,
+                                                                 @NonNull final Class<T> jsonClass,
+                                                                 @NonNull final SharedPreferences preferences) {
+        return JsonValueCache
+                .createStorableBuilder(name, jsonClass, new PreferenceStore<>(preferences), new BinaryConverter<T>(), false)
+                .build();
+    }
+
+    @NonNull
+    public static <T> NonNullStorable<String, T, String> binaryStorable(@NonNull final String name,
+                                                                        @NonNull final Class<T> jsonClass,
+                                                                        @NonNull final SharedPreferences preferences,
+                                                                        @NonNull final T defaultValue) {
+        return JsonValueCache
+                .createStorableBuilder(name, jsonClass, new PreferenceStore<>(preferences), new BinaryConverter<T>(), false)
+                .setDefaultValue(defaultValue)
+                .build();
+    }
+
+    /**
+     * Returns {@link Storable} that is storing list in binary Smile format packed into Base64 string.
+     * Values that are stored as JSON by {@link #jsonListStorable} are read transparently and are rewritten in binary format on next set.
+     * Requires 'com.fasterxml.jackson.dataformat:jackson-dataformat-smile' dependency.
+     */
+    @NonNull
+    public static <T> Storable<String, List<T>, String> binaryListStorable(@NonNull final String name,
+                                                                           @NonNull final Class<T> jsonListItemClass,
+                                                                           @NonNull final SharedPreferences preferences) {
+        return JsonValueCache
+                .createStorableBuilder(name, List.class, new PreferenceStore<>(preferences), new BinaryListConverter<>(jsonListItemClass), false)
+                .build();
+    }
+
+    @NonNull
+    public static <T> NonNullStorable<String, List<T>, String> binaryListStorable(@NonNull final String name,
+                                                                                  @NonNull final Class<T> jsonListItemClass,
+                                                                                  @NonNull final SharedPreferences preferences,
+                                                                                  @NonNull final List<T> defaultValue) {
+        return JsonValueCache
+                .createStorableBuilder(name, List.class, new PreferenceStore<>(preferences), new BinaryListConverter<>(jsonListItemClass), false)
+                .setDefaultValue(defaultValue)
+                .build();
+    }
+
+    /**
+     * Returns {@link Storable} that is storing object as JSON string in specific {@link Store} (e.g. {@link FileStore}).
+     */
+    @NonNull
+    public static <T> Storable<String, T, String> jsonStorable(@NonNull final String name,
+                                                               @NonNull final Class<T> jsonClass,
+                                                               @NonNull final Store<String, String> store) {
+        return JsonValueCache
+                .createStorableBuilder(name, jsonClass, store, new JsonConverter<T>(), false)
+                .build();
+    }
+
+    @NonNull
+    public static <T> NonNullStorable<String, T, String> jsonStorable(@NonNull final String name,
+                                                                      @NonNull final Class<T> jsonClass,
+                                                                      @NonNull final Store<String, String> store,
+                                                                      @NonNull final T defaultValue) {
+        return JsonValueCache
+                .createStorableBuilder(name, jsonClass, store, new JsonConverter<T>(), false)
+                .setDefaultValue(defaultValue)
+                .build();
+    }
+
+    /**
+     * Returns {@link Storable} that is storing list as JSON string in specific {@link Store}.
+     * Use it with {@link FileStore} for big lists so they are not loading and rewriting with all other preferences.
+     */
+    @NonNull
+    public static <T> Storable<String, List<T>, String> jsonListStorable(@NonNull final String name,
+                                                                         @NonNull final Class<T> jsonListItemClass,
+                                                                         @NonNull final Store<String, String> store) {
+        return JsonValueCache
+                .createStorableBuilder(name, List.class, store, new JsonListConverter<>(jsonListItemClass), false)
+                .build();
+    }
+
+    @NonNull
+    public static <T> NonNullStorable<String, List<T>, String> jsonListStorable(@NonNull final String name,
+                                                                                @NonNull final Class<T> jsonListItemClass,
+                                                                                @NonNull final Store<String, String> store,
+                                                                                @NonNull final List<T> defaultValue) {
+        return JsonValueCache
+                .createStorableBuilder(name, List.class, store, new JsonListConverter<>(jsonListItemClass), false)
+                .setDefaultValue(defaultValue)
+                .build();
+    }
+
+    /**
+     * Returns {@link Storable} that is storing object as JSON string in specific {@link Store} (e.g. {@link PreferenceStore})
+     * and is keeping deserialized object in shared {@link JsonValueCache} instead of keeping it in memory forever.
+     */
+    @NonNull
+    public static <T> Storable<String, T, String> cachedJsonStorable(@NonNull final String name,
+                                                                     @NonNull final Class<T> jsonClass,
+                                                                     @NonNull final Store<String, String> store) {
+        return JsonValueCache
+                .createStorableBuilder(name, jsonClass, store, new JsonConverter<T>(), true)
+                .build();
+    }
+
+    @NonNull
+    public static <T> NonNullStorable<String, T, String> cachedJsonStorable(@NonNull final String name,
+                                                                            @NonNull final Class<T> jsonClass,
+                                                                            @NonNull final Store<String, String> store,
+                                                                            @NonNull final T defaultValue) {
+        return JsonValueCache
+                .createStorableBuilder(name, jsonClass, store, new JsonConverter<T>(), true)
+                .setDefaultValue(defaultValue)
+                .build();
+    }
+
+    /**
+     * Returns {@link Storable} that is storing list as JSON string in specific {@link Store} (e.g. {@link PreferenceStore})
+     * and is keeping deserialized list in shared {@link JsonValueCache} instead of keeping it in memory forever.
+     */
+    @NonNull
+    public static <T> Storable<String, List<T>, String> cachedJsonListStorable(@NonNull final String name,
+                                                                               @NonNull final Class<T> jsonListItemClass,
+                                                                               @NonNull final Store<String, String> store) {
+        return JsonValueCache
+                .createStorableBuilder(name, List.class, store, new JsonListConverter<>(jsonListItemClass), true)
+                .build();
+    }
+
+    @NonNull
+    public static <T> NonNullStorable<String, List<T>, String> cachedJsonListStorable(@NonNull final String name,
+                                                                                      @NonNull final Class<T> jsonListItemClass,
+                                                                                      @NonNull final Store<String, String> store,
+                                                                                      @NonNull final List<T> defaultValue) {
+        return JsonValueCache
+                .createStorableBuilder(name, List.class, store, new JsonListConverter<>(jsonListItemClass), true)
+                .setDefaultValue(defaultValue)
+                .build();
+    }
+
+    /**
+     * Returns list that is storing items as JSON lines in files and is writing only changes instead of whole list.
+     * Use it instead of {@link #jsonListStorable} for lists that are growing by one item.
+     */
+    @NonNull
+    public static <T> AppendLogList<T> jsonAppendLogList(@NonNull final File directory,
+                                                         @NonNull final String name,
+                                                         @NonNull final Class<T> jsonListItemClass) {
+        return new AppendLogList<>(directory, name, jsonListItemClass, new JsonConverter<>());
+    }
+
+    /**
+     * Returns {@link WriteBehindStorable} over {@link #jsonStorable}, so object is serialized and stored in background
+     * and rapid sets are coalesced into one write.
+     */
+    @NonNull
+    public static <T> WriteBehindStorable<T> writeBehindJsonStorable(@NonNull final String name,
+                                                                     @NonNull final Class<T> jsonClass,
+                                                                     @NonNull final SharedPreferences preferences) {
+        return new WriteBehindStorable<>(jsonStorable(name, jsonClass, preferences));
+    }
+
+    /**
+     * Returns {@link WriteBehindStorable} over {@link #jsonListStorable}, so list is serialized and stored in background
+     * and rapid sets are coalesced into one write.
+     */
+    @NonNull
+    public static <T> WriteBehindStorable<List<T>> writeBehindJsonListStorable(@NonNull final String name,
+                                                                               @NonNull final Class<T> jsonListItemClass,
+                                                                               @NonNull final SharedPreferences preferences) {
+        return new WriteBehindStorable<>(jsonListStorable(name, jsonListItemClass, preferences));
+    }
+
     private GoogleJsonPreferences() {
     }
 
@@ -95,14 +284,11 @@ public final class GoogleJsonPreferences {
             if (object == null) {
                 return null;
             }
-            final JsonHttpContent content = new JsonHttpContent(GoogleJsonModel.DEFAULT_JSON_FACTORY, object);
-            final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
             try {
-                content.writeTo(byteArrayOutputStream);
+                return GoogleJsonModel.DEFAULT_JSON_FACTORY.toString(object);
             } catch (final IOException exception) {
                 throw new ShouldNotHappenException(exception);
             }
-            return new String(byteArrayOutputStream.toByteArray());
         }
 
         @Nullable
@@ -146,4 +332,101 @@ public final class GoogleJsonPreferences {
 
     }
 
+    /**
+     * Converter that is storing objects in binary Smile format packed into Base64 string.
+     * Strings that are not in this format are parsed as JSON, so it could replace {@link JsonConverter} without migration.
+     *
+     * @param <TJsonObject> Type of object.
+     */
+    public static class BinaryConverter<TJsonObject> extends JsonConverter<TJsonObject> {
+
+        // Base64 of Smile header ":)\n"
+        private static final String BINARY_PREFIX = "OikK";
+        private static final SmileJsonFactory SMILE_JSON_FACTORY = new SmileJsonFactory();
+        private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+        /**
+         * Returns if stored string is in binary format.
+         *
+         * @param storeValue Stored string;
+         * @return True if string is Base64 packed Smile data.
+         */
+        protected static boolean isBinary(@NonNull final String storeValue) {
+            return storeValue.startsWith(BINARY_PREFIX);
+        }
+
+        /**
+         * Creates parser of Base64 packed Smile data.
+         *
+         * @param storeValue Stored string;
+         * @return Parser of data;
+         * @throws IOException Exception during parser creation.
+         */
+        @NonNull
+        protected static JsonParser createBinaryParser(@NonNull final String storeValue) throws IOException {
+            return SMILE_JSON_FACTORY.createJsonParser(new ByteArrayInputStream(Base64.decode(storeValue, Base64.NO_WRAP)));
+        }
+
+        @Nullable
+        @Override
+        public String toStoreObject(@NonNull final Type jsonObjectType, @NonNull final Type stringType,
+                                    @Nullable final TJsonObject object) {
+            if (object == null) {
+                return null;
+            }
+            final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+            try {
+                final JsonGenerator generator = SMILE_JSON_FACTORY.createJsonGenerator(byteArrayOutputStream, UTF_8);
+                generator.serialize(object);
+                generator.close();
+            } catch (final IOException exception) {
+                throw new ShouldNotHappenException(exception);
+            }
+            return Base64.encodeToString(byteArrayOutputStream.toByteArray(), Base64.NO_WRAP);
+        }
+
+        @Nullable
+        @Override
+        @SuppressWarnings("unchecked")
+        public TJsonObject toObject(@NonNull final Type jsonObjectType, @NonNull final Type stringType, @Nullable final String storeValue) {
+            if (storeValue == null || !isBinary(storeValue)) {
+                return super.toObject(jsonObjectType, stringType, storeValue);
+            }
+            try {
+                return (TJsonObject) createBinaryParser(storeValue).parse(jsonObjectType, true);
+            } catch (final IOException exception) {
+                throw new ShouldNotHappenException(exception);
+            }
+        }
+
+    }
+
+    public static class BinaryListConverter<T> extends BinaryConverter<List<T>> {
+
+        @NonNull
+        private final Class<T> itemClass;
+        @NonNull
+        private final JsonListConverter<T> jsonListConverter;
+
+        public BinaryListConverter(@NonNull final Class<T> itemClass) {
+            super();
+            this.itemClass = itemClass;
+            this.jsonListConverter = new JsonListConverter<>(itemClass);
+        }
+
+        @Nullable
+        @Override
+        public List<T> toObject(@NonNull final Type jsonObjectType, @NonNull final Type stringType, @Nullable final String storeValue) {
+            if (storeValue == null || !isBinary(storeValue)) {
+                return jsonListConverter.toObject(jsonObjectType, stringType, storeValue);
+            }
+            try {
+                return new ArrayList<>(createBinaryParser(storeValue).parseArray(ArrayList.class, itemClass));
+            } catch (final IOException exception) {
+                throw new ShouldNotHappenException(exception);
+            }
+        }
+
+    }
+
 }
@@ -22,7 +22,9 @@ package ru.touchin.templates.googlejson;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.Charset;
 
 import ru.touchin.templates.socket.SocketEvent;
 import ru.touchin.templates.socket.SocketMessageHandler;
@@ -36,6 +38,8 @@ import ru.touchin.templates.ApiModel;
  */
 public class GoogleJsonSocketEvent<TMessage> extends SocketEvent<TMessage> {
 
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
     public GoogleJsonSocketEvent(@NonNull final String name, @NonNull final Class<TMessage> clz,
                                  @Nullable final SocketMessageHandler<TMessage> eventDataHandler) {
         super(name, clz, eventDataHandler);
@@ -44,7 +48,18 @@ public class GoogleJsonSocketEvent<TMessage> extends SocketEvent<TMessage> {
     @NonNull
     @Override
     public TMessage parse(@NonNull final byte[] data) throws IOException {
-        final TMessage message = GoogleJsonModel.DEFAULT_JSON_FACTORY.createJsonParser(new String(data, "UTF-8")).parseAndClose(getMessageClass());
+        return validate(GoogleJsonModel.DEFAULT_JSON_FACTORY.createJsonParser(new ByteArrayInputStream(data), UTF_8)
+                .parseAndClose(getMessageClass()));
+    }
+
+    @NonNull
+    @Override
+    public TMessage parse(@NonNull final String data) throws IOException {
+        return validate(GoogleJsonModel.DEFAULT_JSON_FACTORY.createJsonParser(data).parseAndClose(getMessageClass()));
+    }
+
+    @NonNull
+    private TMessage validate(@NonNull final TMessage message) throws IOException {
         if (message instanceof ApiModel) {
             ((ApiModel) message).validate();
         }
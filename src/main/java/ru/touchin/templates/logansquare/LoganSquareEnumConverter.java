@@ -24,17 +24,38 @@ import android.support.annotation.Nullable;
 
 import com.bluelinelabs.logansquare.typeconverters.StringBasedTypeConverter;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 import ru.touchin.roboswag.core.utils.ShouldNotHappenException;
 
 /**
  * Created by Gavriil Sitnikov.
  * LoganSquare converter from String to Enum.
+ * Values are found by index of value names which is built once at construction.
+ * If some values have same name then first of them is used.
  */
 @SuppressWarnings("PMD.UseVarargs")
 public class LoganSquareEnumConverter<T extends Enum & LoganSquareEnum> extends StringBasedTypeConverter<T> {
 
     @NonNull
-    private final T[] enumValues;
+    private static <T extends Enum & LoganSquareEnum> Map<String, T> createIndex(@NonNull final T[] enumValues, final boolean lowerCase) {
+        final Map<String, T> index = new HashMap<>(enumValues.length * 2);
+        for (final T value : enumValues) {
+            final String key = lowerCase ? value.getValueName().toLowerCase(Locale.US) : value.getValueName();
+            if (!index.containsKey(key)) {
+                index.put(key, value);
+            }
+        }
+        return Collections.unmodifiableMap(index);
+    }
+
+    @NonNull
+    private final Map<String, T> valuesByName;
+    @Nullable
+    private final Map<String, T> valuesByLowerCaseName;
     @Nullable
     private final T defaultValue;
 
@@ -43,8 +64,20 @@ public class LoganSquareEnumConverter<T extends Enum & LoganSquareEnum> extends
     }
 
     public LoganSquareEnumConverter(@NonNull final T[] enumValues, @Nullable final T defaultValue) {
+        this(enumValues, defaultValue, false);
+    }
+
+    /**
+     * Creates converter.
+     *
+     * @param enumValues      Values of enum;
+     * @param defaultValue    Value to return if string is null or there is no value with such name;
+     * @param caseInsensitive If true then names of values are compared ignoring case.
+     */
+    public LoganSquareEnumConverter(@NonNull final T[] enumValues, @Nullable final T defaultValue, final boolean caseInsensitive) {
         super();
-        this.enumValues = enumValues;
+        this.valuesByName = createIndex(enumValues, false);
+        this.valuesByLowerCaseName = caseInsensitive ? createIndex(enumValues, true) : null;
         this.defaultValue = defaultValue;
     }
 
@@ -54,10 +87,12 @@ public class LoganSquareEnumConverter<T extends Enum & LoganSquareEnum> extends
         if (string == null) {
             return defaultValue;
         }
-        for (final T value : enumValues) {
-            if (value.getValueName().equals(string)) {
-                return value;
-            }
+        T value = valuesByName.get(string);
+        if (value == null && valuesByLowerCaseName != null) {
+            value = valuesByLowerCaseName.get(string.toLowerCase(Locale.US));
+        }
+        if (value != null) {
+            return value;
         }
         if (defaultValue != null) {
             return defaultValue;
@@ -26,21 +26,171 @@ import android.support.annotation.Nullable;
 import com.bluelinelabs.logansquare.typeconverters.TypeConverter;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 
 import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.chrono.ISOChronology;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import ru.touchin.roboswag.core.log.Lc;
 
 /**
  * LoganSquare converter for joda.time.DateTime
+ * ISO-8601 date-times with time zone offset (like 2017-08-23T10:15:30.123+03:00 or 2017-08-23T10:15:30Z) are parsed
+ * straight from text buffer of {@link JsonParser}, all other formats are parsed by {@link DateTime#parse(String)}.
+ * Date-times are serialized in same format as {@link DateTime#toString()} through reusable per-thread buffer.
  */
 public class LoganSquareJodaTimeConverter implements TypeConverter<DateTime> {
 
+    private static final int MINUTES_IN_HOUR = 60;
+    private static final int OFFSET_CACHE_STEP_MINUTES = 15;
+    private static final int MAX_OFFSET_MINUTES = 18 * MINUTES_IN_HOUR;
+    private static final int MAX_FRACTION_LENGTH = 9;
+    // zones of offsets which are multiple of 15 minutes (almost all real offsets) by index
+    @NonNull
+    private static final AtomicReferenceArray<DateTimeZone> ZONES_BY_OFFSET
+            = new AtomicReferenceArray<>(2 * MAX_OFFSET_MINUTES / OFFSET_CACHE_STEP_MINUTES + 1);
+    // length of yyyy-MM-ddTHH:mm:ss.SSS+HH:mm
+    private static final int MAX_SERIALIZED_LENGTH = 29;
+    @NonNull
+    private static final ThreadLocal<char[]> SERIALIZATION_BUFFERS = new ThreadLocal<>();
+
+    @NonNull
+    private static DateTimeZone getZone(final int offsetMinutes) {
+        if (offsetMinutes % OFFSET_CACHE_STEP_MINUTES != 0) {
+            return DateTimeZone.forOffsetMillis((int) TimeUnit.MINUTES.toMillis(offsetMinutes));
+        }
+        final int index = (offsetMinutes + MAX_OFFSET_MINUTES) / OFFSET_CACHE_STEP_MINUTES;
+        DateTimeZone zone = ZONES_BY_OFFSET.get(index);
+        if (zone == null) {
+            // offset 0 is resolved to DateTimeZone.UTC same as by DateTime.parse()
+            zone = DateTimeZone.forOffsetMillis((int) TimeUnit.MINUTES.toMillis(offsetMinutes));
+            ZONES_BY_OFFSET.set(index, zone);
+        }
+        return zone;
+    }
+
+    private static int parseDigits(@NonNull final char[] chars, final int start, final int count) {
+        int result = 0;
+        for (int position = start; position < start + count; position++) {
+            final int digit = chars[position] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    private static boolean isCharAt(@NonNull final char[] chars, final int position, final int end, final char expectedChar) {
+        return position < end && chars[position] == expectedChar;
+    }
+
+    /**
+     * Parses date-time of format yyyy-MM-ddTHH:mm:ss[.fraction](Z|±HH:mm|±HHmm|±HH).
+     *
+     * @param chars  Buffer of chars;
+     * @param offset Offset of text in buffer;
+     * @param length Length of text;
+     * @return Parsed date-time or null if text is in other format.
+     */
+    @Nullable
+    @SuppressWarnings({"checkstyle:MagicNumber", "PMD.CyclomaticComplexity", "PMD.NPathComplexity"})
+    private static DateTime parseIsoDateTime(@NonNull final char[] chars, final int offset, final int length) {
+        final int end = offset + length;
+        if (length < 20 || chars[offset + 4] != '-' || chars[offset + 7] != '-' || chars[offset + 10] != 'T'
+                || chars[offset + 13] != ':' || chars[offset + 16] != ':') {
+            return null;
+        }
+        final int year = parseDigits(chars, offset, 4);
+        final int month = parseDigits(chars, offset + 5, 2);
+        final int day = parseDigits(chars, offset + 8, 2);
+        final int hour = parseDigits(chars, offset + 11, 2);
+        final int minute = parseDigits(chars, offset + 14, 2);
+        final int second = parseDigits(chars, offset + 17, 2);
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0) {
+            return null;
+        }
+        int position = offset + 19;
+        int millis = 0;
+        if (isCharAt(chars, position, end, '.')) {
+            position++;
+            final int fractionStart = position;
+            while (position < end && chars[position] >= '0' && chars[position] <= '9') {
+                if (position - fractionStart < 3) {
+                    millis = millis * 10 + chars[position] - '0';
+                }
+                position++;
+            }
+            final int fractionLength = position - fractionStart;
+            if (fractionLength == 0 || fractionLength > MAX_FRACTION_LENGTH) {
+                return null;
+            }
+            for (int i = fractionLength; i < 3; i++) {
+                millis *= 10;
+            }
+        }
+        if (position >= end) {
+            // no offset so zone is default one, leaving it to Joda
+            return null;
+        }
+        final DateTimeZone zone;
+        final char zoneChar = chars[position];
+        if (zoneChar == 'Z') {
+            if (position + 1 != end) {
+                return null;
+            }
+            zone = DateTimeZone.UTC;
+        } else if (zoneChar == '+' || zoneChar == '-') {
+            final int zoneLength = end - position - 1;
+            final int offsetHours;
+            final int offsetMinutes;
+            if (zoneLength == 2) {
+                offsetHours = parseDigits(chars, position + 1, 2);
+                offsetMinutes = 0;
+            } else if (zoneLength == 4) {
+                offsetHours = parseDigits(chars, position + 1, 2);
+                offsetMinutes = parseDigits(chars, position + 3, 2);
+            } else if (zoneLength == 5 && chars[position + 3] == ':') {
+                offsetHours = parseDigits(chars, position + 1, 2);
+                offsetMinutes = parseDigits(chars, position + 4, 2);
+            } else {
+                return null;
+            }
+            if (offsetHours < 0 || offsetMinutes < 0 || offsetMinutes >= MINUTES_IN_HOUR) {
+                return null;
+            }
+            final int totalOffsetMinutes = offsetHours * MINUTES_IN_HOUR + offsetMinutes;
+            if (totalOffsetMinutes > MAX_OFFSET_MINUTES) {
+                return null;
+            }
+            zone = getZone(zoneChar == '-' ? -totalOffsetMinutes : totalOffsetMinutes);
+        } else {
+            return null;
+        }
+        return new DateTime(year, month, day, hour, minute, second, millis, zone);
+    }
+
     @Nullable
     @Override
     public DateTime parse(@NonNull final JsonParser jsonParser) throws IOException {
+        if (jsonParser.getCurrentToken() == JsonToken.VALUE_STRING) {
+            final char[] chars = jsonParser.getTextCharacters();
+            if (chars != null) {
+                try {
+                    final DateTime dateTime = parseIsoDateTime(chars, jsonParser.getTextOffset(), jsonParser.getTextLength());
+                    if (dateTime != null) {
+                        return dateTime;
+                    }
+                } catch (final RuntimeException exception) {
+                    // values are out of range so letting Joda to report it
+                }
+            }
+        }
         final String dateString = jsonParser.getValueAsString();
         if (dateString == null) {
             return null;
@@ -53,6 +203,54 @@ public class LoganSquareJodaTimeConverter implements TypeConverter<DateTime> {
         return null;
     }
 
+    private static void writeDigits(@NonNull final char[] chars, final int start, final int count, final int value) {
+        int rest = value;
+        for (int position = start + count - 1; position >= start; position--) {
+            chars[position] = (char) ('0' + rest % 10);
+            rest /= 10;
+        }
+    }
+
+    /**
+     * Writes date-time in format of {@link DateTime#toString()} (yyyy-MM-ddTHH:mm:ss.SSS(Z|±HH:mm)) into buffer.
+     *
+     * @param dateTime Date-time to write;
+     * @param chars    Buffer of at least {@link #MAX_SERIALIZED_LENGTH} chars;
+     * @return Length of written text or -1 if date-time could not be written in this format.
+     */
+    @SuppressWarnings("checkstyle:MagicNumber")
+    private static int writeIsoDateTime(@NonNull final DateTime dateTime, @NonNull final char[] chars) {
+        final int year = dateTime.getYear();
+        final int offsetMillis = dateTime.getZone().getOffset(dateTime.getMillis());
+        if (year < 0 || year > 9999 || offsetMillis % TimeUnit.MINUTES.toMillis(1) != 0
+                || !(dateTime.getChronology() instanceof ISOChronology)) {
+            return -1;
+        }
+        writeDigits(chars, 0, 4, year);
+        chars[4] = '-';
+        writeDigits(chars, 5, 2, dateTime.getMonthOfYear());
+        chars[7] = '-';
+        writeDigits(chars, 8, 2, dateTime.getDayOfMonth());
+        chars[10] = 'T';
+        writeDigits(chars, 11, 2, dateTime.getHourOfDay());
+        chars[13] = ':';
+        writeDigits(chars, 14, 2, dateTime.getMinuteOfHour());
+        chars[16] = ':';
+        writeDigits(chars, 17, 2, dateTime.getSecondOfMinute());
+        chars[19] = '.';
+        writeDigits(chars, 20, 3, dateTime.getMillisOfSecond());
+        if (offsetMillis == 0) {
+            chars[23] = 'Z';
+            return 24;
+        }
+        final int offsetMinutes = (int) TimeUnit.MILLISECONDS.toMinutes(Math.abs(offsetMillis));
+        chars[23] = offsetMillis > 0 ? '+' : '-';
+        writeDigits(chars, 24, 2, offsetMinutes / MINUTES_IN_HOUR);
+        chars[26] = ':';
+        writeDigits(chars, 27, 2, offsetMinutes % MINUTES_IN_HOUR);
+        return MAX_SERIALIZED_LENGTH;
+    }
+
     @Override
     public void serialize(@Nullable final DateTime object,
                           @Nullable final String fieldName,
@@ -60,9 +258,22 @@ public class LoganSquareJodaTimeConverter implements TypeConverter<DateTime> {
                           @NonNull final JsonGenerator jsonGenerator)
             throws IOException {
         if (fieldName != null) {
-            jsonGenerator.writeStringField(fieldName, object != null ? object.toString() : null);
+            jsonGenerator.writeFieldName(fieldName);
+        }
+        if (object == null) {
+            jsonGenerator.writeNull();
+            return;
+        }
+        char[] chars = SERIALIZATION_BUFFERS.get();
+        if (chars == null) {
+            chars = new char[MAX_SERIALIZED_LENGTH];
+            SERIALIZATION_BUFFERS.set(chars);
+        }
+        final int length = writeIsoDateTime(object, chars);
+        if (length >= 0) {
+            jsonGenerator.writeString(chars, 0, length);
         } else {
-            jsonGenerator.writeString(object != null ? object.toString() : null);
+            jsonGenerator.writeString(object.toString());
         }
     }
 
@@ -20,25 +20,42 @@
 package ru.touchin.templates.logansquare;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.bluelinelabs.logansquare.ConverterUtils;
+import com.bluelinelabs.logansquare.JsonMapper;
 import com.bluelinelabs.logansquare.LoganSquare;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.google.api.client.json.jackson2.JacksonFactory;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
 import retrofit2.Converter;
 import retrofit2.Retrofit;
+import ru.touchin.roboswag.core.log.Lc;
+import ru.touchin.templates.ApiModel;
 import ru.touchin.templates.retrofit.JsonRequestBodyConverter;
 import ru.touchin.templates.retrofit.JsonResponseBodyConverter;
+import ru.touchin.templates.retrofit.ValidationMetrics;
+import rx.Observable;
+import rx.Observer;
+import rx.observables.SyncOnSubscribe;
+import rx.schedulers.Schedulers;
 
 /**
  * Created by Gavriil Sitnikov on 2/06/2016.
@@ -47,11 +64,27 @@ import ru.touchin.templates.retrofit.JsonResponseBodyConverter;
 public class LoganSquareJsonFactory extends Converter.Factory {
 
     @NonNull
+    private static final ConcurrentMap<Type, ParseStrategy<?>> PARSE_STRATEGIES = new ConcurrentHashMap<>();
+
+    /**
+     * Returns converter of responses. {@link JsonMapper}s of response type are resolved here so {@link LoganSquare#mapperFor}
+     * fails for types without mapper when Retrofit creates service method (on first call of it or on creation of service
+     * if Retrofit validates methods eagerly) but not on parsing of each response.
+     */
+    @NonNull
     @Override
     public Converter<ResponseBody, ?> responseBodyConverter(@NonNull final Type type,
                                                             @NonNull final Annotation[] annotations,
                                                             @NonNull final Retrofit retrofit) {
-        return new LoganSquareJsonResponseBodyConverter<>(type);
+        final String endpointName = JsonResponseBodyConverter.getEndpointName(annotations);
+        if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() == Observable.class) {
+            final Type itemType = ((ParameterizedType) type).getActualTypeArguments()[0];
+            // parameterized or wildcard items have no own mapper so they are parsed without streaming
+            if (itemType instanceof Class) {
+                return new LoganSquareStreamingResponseBodyConverter<>((Class<?>) itemType, endpointName);
+            }
+        }
+        return new LoganSquareJsonResponseBodyConverter<>(type, endpointName);
     }
 
     @NonNull
@@ -63,36 +96,285 @@ public class LoganSquareJsonFactory extends Converter.Factory {
         return new LoganSquareRequestBodyConverter<>();
     }
 
+    /**
+     * Returns strategy to parse responses of specific type. Strategies are resolved once per type and cached.
+     *
+     * @param type Type of response;
+     * @param <T>  Type of response;
+     * @return Strategy with pre-fetched {@link JsonMapper};
+     * @throws com.bluelinelabs.logansquare.NoSuchMapperException If there is no mapper of type.
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    protected static <T> ParseStrategy<T> getParseStrategy(@NonNull final Type type) {
+        ParseStrategy<?> parseStrategy = PARSE_STRATEGIES.get(type);
+        if (parseStrategy == null) {
+            parseStrategy = createParseStrategy(type);
+            final ParseStrategy<?> previousParseStrategy = PARSE_STRATEGIES.putIfAbsent(type, parseStrategy);
+            if (previousParseStrategy != null) {
+                parseStrategy = previousParseStrategy;
+            }
+        }
+        return (ParseStrategy<T>) parseStrategy;
+    }
+
+    @NonNull
+    private static ParseStrategy<?> createParseStrategy(@NonNull final Type type) {
+        if (type instanceof Class) {
+            return new ObjectParseStrategy<>(LoganSquare.mapperFor((Class<?>) type));
+        }
+        if (!(type instanceof ParameterizedType)) {
+            throw new IllegalArgumentException("Unsupported type of response " + type);
+        }
+        final ParameterizedType parameterizedType = (ParameterizedType) type;
+        final Type[] typeArguments = parameterizedType.getActualTypeArguments();
+        final Type rawType = parameterizedType.getRawType();
+        if (rawType == Map.class && typeArguments[1] instanceof Class) {
+            return new MapParseStrategy<>(LoganSquare.mapperFor((Class<?>) typeArguments[1]));
+        } else if (rawType == List.class && typeArguments[0] instanceof Class) {
+            return new ListParseStrategy<>(LoganSquare.mapperFor((Class<?>) typeArguments[0]));
+        } else {
+            // Generics
+            return new ObjectParseStrategy<>(LoganSquare.mapperFor(ConverterUtils.parameterizedTypeOf(type)));
+        }
+    }
+
     public static class LoganSquareJsonResponseBodyConverter<T> extends JsonResponseBodyConverter<T> {
 
         @NonNull
-        private final Type type;
+        private final ParseStrategy<T> parseStrategy;
 
         public LoganSquareJsonResponseBodyConverter(@NonNull final Type type) {
-            super();
-            this.type = type;
+            this(type, null);
+        }
+
+        public LoganSquareJsonResponseBodyConverter(@NonNull final Type type, @Nullable final String endpointName) {
+            super(endpointName);
+            this.parseStrategy = getParseStrategy(type);
+        }
+
+        @NonNull
+        @Override
+        protected T parseResponse(@NonNull final ResponseBody value, @NonNull final ApiModel.CollectionItemsValidator itemsValidator)
+                throws IOException {
+            return parseStrategy.parse(value.byteStream(), itemsValidator);
         }
 
-        @SuppressWarnings("unchecked")
         @NonNull
         @Override
         protected T parseResponse(@NonNull final ResponseBody value) throws IOException {
-            if (type instanceof ParameterizedType) {
-                final ParameterizedType parameterizedType = (ParameterizedType) type;
-                final Type[] typeArguments = parameterizedType.getActualTypeArguments();
-                final Type firstType = typeArguments[0];
-
-                final Type rawType = parameterizedType.getRawType();
-                if (rawType == Map.class) {
-                    return (T) LoganSquare.parseMap(value.byteStream(), (Class<?>) typeArguments[1]);
-                } else if (rawType == List.class) {
-                    return (T) LoganSquare.parseList(value.byteStream(), (Class<?>) firstType);
-                } else {
-                    // Generics
-                    return (T) LoganSquare.parse(value.byteStream(), ConverterUtils.parameterizedTypeOf(type));
+            // items are validated only by validator of convert() which validates collection after parsing if it is not validated yet
+            return parseStrategy.parse(value.byteStream(), null);
+        }
+
+    }
+
+    /**
+     * Strategy to parse response of specific type.
+     *
+     * @param <T> Type of response.
+     */
+    protected interface ParseStrategy<T> {
+
+        /**
+         * Parses response.
+         *
+         * @param inputStream    Stream of response;
+         * @param itemsValidator Validator of collection items to use if response is collection that is parsed item by item
+         *                       or null if items should not be validated during parsing;
+         * @return Parsed response;
+         * @throws IOException Exception during parsing.
+         */
+        @NonNull
+        T parse(@NonNull InputStream inputStream, @Nullable ApiModel.CollectionItemsValidator itemsValidator) throws IOException;
+
+    }
+
+    private static class ObjectParseStrategy<T> implements ParseStrategy<T> {
+
+        @NonNull
+        private final JsonMapper<T> mapper;
+
+        public ObjectParseStrategy(@NonNull final JsonMapper<T> mapper) {
+            this.mapper = mapper;
+        }
+
+        @NonNull
+        @Override
+        public T parse(@NonNull final InputStream inputStream, @Nullable final ApiModel.CollectionItemsValidator itemsValidator) throws IOException {
+            return mapper.parse(inputStream);
+        }
+
+    }
+
+    private static class MapParseStrategy<T> implements ParseStrategy<Map<String, T>> {
+
+        @NonNull
+        private final JsonMapper<T> valueMapper;
+
+        public MapParseStrategy(@NonNull final JsonMapper<T> valueMapper) {
+            this.valueMapper = valueMapper;
+        }
+
+        @NonNull
+        @Override
+        public Map<String, T> parse(@NonNull final InputStream inputStream, @Nullable final ApiModel.CollectionItemsValidator itemsValidator)
+                throws IOException {
+            return valueMapper.parseMap(inputStream);
+        }
+
+    }
+
+    private static class ListParseStrategy<T> implements ParseStrategy<List<T>> {
+
+        @NonNull
+        private final JsonMapper<T> itemMapper;
+
+        public ListParseStrategy(@NonNull final JsonMapper<T> itemMapper) {
+            this.itemMapper = itemMapper;
+        }
+
+        @NonNull
+        @Override
+        public List<T> parse(@NonNull final InputStream inputStream, @Nullable final ApiModel.CollectionItemsValidator itemsValidator)
+                throws IOException {
+            final JsonParser jsonParser = LoganSquare.JSON_FACTORY.createParser(inputStream);
+            try {
+                final List<T> result = new ArrayList<>();
+                if (jsonParser.nextToken() == JsonToken.START_ARRAY) {
+                    while (jsonParser.nextToken() != JsonToken.END_ARRAY) {
+                        final T item = itemMapper.parse(jsonParser);
+                        if (itemsValidator == null || itemsValidator.validateItem(item)) {
+                            result.add(item);
+                        }
+                    }
+                }
+                if (itemsValidator != null) {
+                    itemsValidator.finish();
+                }
+                return result;
+            } finally {
+                jsonParser.close();
+            }
+        }
+
+    }
+
+    /**
+     * Converter of responses which are JSON arrays into {@link Observable} of items.
+     * Items are emitted while array is being read so first items could be shown before whole response is parsed.
+     * Use it by declaring response type of Retrofit method as Observable of items (e.g. Single&lt;Observable&lt;Item&gt;&gt;)
+     * and mark method with {@link retrofit2.http.Streaming} so response body is not buffered.
+     * Each item is validated as it arrives, invalid items are skipped by default.
+     * Response is read on {@link Schedulers#io()} on subscription so returned {@link Observable} could be subscribed only once
+     * and it should be subscribed to release connection.
+     * Only items of non-generic classes are streamed, responses of other types are parsed as a whole.
+     *
+     * @param <T> Type of items.
+     */
+    public static class LoganSquareStreamingResponseBodyConverter<T> implements Converter<ResponseBody, Observable<T>> {
+
+        @NonNull
+        private final Class<T> itemClass;
+        @Nullable
+        private final String endpointName;
+
+        public LoganSquareStreamingResponseBodyConverter(@NonNull final Class<T> itemClass, @Nullable final String endpointName) {
+            this.itemClass = itemClass;
+            this.endpointName = endpointName;
+        }
+
+        @NonNull
+        protected ApiModel.CollectionValidationRule getValidateCollectionRule() {
+            return ApiModel.CollectionValidationRule.REMOVE_INVALID_ITEMS;
+        }
+
+        @NonNull
+        @Override
+        public Observable<T> convert(@NonNull final ResponseBody value) {
+            final JsonMapper<T> mapper = LoganSquare.mapperFor(itemClass);
+            final AtomicBoolean subscribed = new AtomicBoolean();
+            return Observable.create(SyncOnSubscribe.<StreamingState<T>, T>createStateful(
+                    () -> {
+                        if (!subscribed.compareAndSet(false, true)) {
+                            throw new IllegalStateException("Streaming response could be read only once");
+                        }
+                        return new StreamingState<>(value, mapper, new ApiModel.CollectionItemsValidator(getValidateCollectionRule()), endpointName);
+                    },
+                    (state, observer) -> {
+                        state.next(observer);
+                        return state;
+                    },
+                    StreamingState::close))
+                    .subscribeOn(Schedulers.io());
+        }
+
+    }
+
+    private static class StreamingState<T> {
+
+        @NonNull
+        private final ResponseBody body;
+        @NonNull
+        private final JsonMapper<T> mapper;
+        @NonNull
+        private final ApiModel.CollectionItemsValidator itemsValidator;
+        @Nullable
+        private final String endpointName;
+        @Nullable
+        private JsonParser jsonParser;
+
+        public StreamingState(@NonNull final ResponseBody body, @NonNull final JsonMapper<T> mapper,
+                              @NonNull final ApiModel.CollectionItemsValidator itemsValidator, @Nullable final String endpointName) {
+            this.body = body;
+            this.mapper = mapper;
+            this.itemsValidator = itemsValidator;
+            this.endpointName = endpointName;
+        }
+
+        // emits one valid item or completes
+        public void next(@NonNull final Observer<? super T> observer) {
+            try {
+                if (jsonParser == null) {
+                    jsonParser = LoganSquare.JSON_FACTORY.createParser(body.byteStream());
+                    if (jsonParser.nextToken() != JsonToken.START_ARRAY) {
+                        complete(observer);
+                        return;
+                    }
+                }
+                while (jsonParser.nextToken() != JsonToken.END_ARRAY) {
+                    final T item = mapper.parse(jsonParser);
+                    if (itemsValidator.validateItem(item)) {
+                        observer.onNext(item);
+                        return;
+                    }
+                }
+                complete(observer);
+            } catch (final ApiModel.ValidationException exception) {
+                Lc.assertion(exception);
+                observer.onError(exception);
+            } catch (final IOException exception) {
+                observer.onError(exception);
+            }
+        }
+
+        private void complete(@NonNull final Observer<? super T> observer) throws ApiModel.ValidationException {
+            itemsValidator.finish();
+            if (endpointName != null) {
+                ValidationMetrics.record(endpointName, itemsValidator.getValidationNanos());
+            }
+            observer.onCompleted();
+        }
+
+        public void close() {
+            try {
+                if (jsonParser != null) {
+                    jsonParser.close();
                 }
-            } else {
-                return (T) LoganSquare.parse(value.byteStream(), (Class) type);
+            } catch (final IOException exception) {
+                Lc.w(exception, "Can't close parser");
+            } finally {
+                body.close();
             }
         }
 
@@ -103,7 +385,12 @@ public class LoganSquareJsonFactory extends Converter.Factory {
         @Override
         protected void writeValueToByteArray(@NonNull final T value, @NonNull final ByteArrayOutputStream byteArrayOutputStream)
                 throws IOException {
-            LoganSquare.serialize(value, byteArrayOutputStream);
+            writeValueToStream(value, byteArrayOutputStream);
+        }
+
+        @Override
+        protected void writeValueToStream(@NonNull final T value, @NonNull final OutputStream outputStream) throws IOException {
+            LoganSquare.serialize(value, outputStream);
         }
 
     }
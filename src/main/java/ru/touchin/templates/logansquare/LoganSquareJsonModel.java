@@ -21,7 +21,6 @@ package ru.touchin.templates.logansquare;
 
 import android.support.annotation.Nullable;
 
-import ru.touchin.roboswag.core.log.Lc;
 import ru.touchin.templates.ApiModel;
 
 /**
@@ -38,7 +37,7 @@ public abstract class LoganSquareJsonModel extends ApiModel {
      */
     protected static void validateNotNull(@Nullable final Object object) throws ValidationException {
         if (object == null) {
-            throw new ValidationException("Not nullable object is null or missed at " + Lc.getCodePoint(null, 1));
+            throw new ValidationException("Not nullable object is null or missed", 1);
         }
     }
 
@@ -0,0 +1,164 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.requests;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Cache;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+
+/**
+ * Process-wide holder of {@link OkHttpClient} that is shared by all {@link HttpRequest}s by default.
+ * Sharing one client means sharing connection pool, dispatcher and TLS session cache so keep-alive connections are reused between requests.
+ * Clients with specific settings should be derived from {@link #getSharedClient()} via {@link OkHttpClient#newBuilder()} to keep sharing them.
+ */
+public final class HttpClientRegistry {
+
+    public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+    public static final long DEFAULT_KEEP_ALIVE_DURATION_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final Object LOCK = new Object();
+    @NonNull
+    private static final Map<Connection, Boolean> KNOWN_CONNECTIONS = Collections.synchronizedMap(new WeakHashMap<>());
+    @NonNull
+    private static final AtomicLong NEW_CONNECTIONS_COUNT = new AtomicLong();
+    @NonNull
+    private static final AtomicLong REUSED_CONNECTIONS_COUNT = new AtomicLong();
+
+    private static int maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+    private static long keepAliveDurationMillis = DEFAULT_KEEP_ALIVE_DURATION_MILLIS;
+    @Nullable
+    private static Cache cache;
+    @Nullable
+    private static OkHttpClient sharedClient;
+
+    /**
+     * Configures connection pool of shared client. Should be called before first request (e.g. in Application.onCreate).
+     * Requests that are already running will be finished by previous client.
+     *
+     * @param maxIdleConnections Maximum number of idle connections to keep in pool;
+     * @param keepAliveDuration  Time to keep idle connection alive;
+     * @param timeUnit           Unit of keepAliveDuration.
+     */
+    public static void configure(final int maxIdleConnections, final long keepAliveDuration, @NonNull final TimeUnit timeUnit) {
+        synchronized (LOCK) {
+            HttpClientRegistry.maxIdleConnections = maxIdleConnections;
+            HttpClientRegistry.keepAliveDurationMillis = timeUnit.toMillis(keepAliveDuration);
+            sharedClient = null;
+        }
+    }
+
+    /**
+     * Sets disk HTTP cache of shared client. {@link Cache} is LRU cache limited by size in bytes and it is revalidating cached responses
+     * by ETag/Last-Modified headers (If-None-Match/If-Modified-Since requests).
+     * Should be called before first request (e.g. in Application.onCreate).
+     *
+     * @param cache Cache to use or null to disable caching.
+     */
+    public static void setCache(@Nullable final Cache cache) {
+        synchronized (LOCK) {
+            HttpClientRegistry.cache = cache;
+            sharedClient = null;
+        }
+    }
+
+    /**
+     * Returns (and creates if needed) client that is shared between all requests of process.
+     *
+     * @return Shared {@link OkHttpClient}.
+     */
+    @NonNull
+    public static OkHttpClient getSharedClient() {
+        synchronized (LOCK) {
+            if (sharedClient == null) {
+                sharedClient = createClientBuilder().build();
+            }
+            return sharedClient;
+        }
+    }
+
+    /**
+     * Returns count of requests that were executed on newly opened connections.
+     *
+     * @return Count of new connections usages.
+     */
+    public static long getNewConnectionsCount() {
+        return NEW_CONNECTIONS_COUNT.get();
+    }
+
+    /**
+     * Returns count of requests that were executed on connections taken from pool (keep-alive reuse).
+     *
+     * @return Count of reused connections usages.
+     */
+    public static long getReusedConnectionsCount() {
+        return REUSED_CONNECTIONS_COUNT.get();
+    }
+
+    /**
+     * Resets connections usage counters.
+     */
+    public static void resetConnectionsCounters() {
+        NEW_CONNECTIONS_COUNT.set(0);
+        REUSED_CONNECTIONS_COUNT.set(0);
+    }
+
+    @NonNull
+    private static OkHttpClient.Builder createClientBuilder() {
+        return new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveDurationMillis, TimeUnit.MILLISECONDS))
+                .cache(cache)
+                .addNetworkInterceptor(new ConnectionsCountingInterceptor());
+    }
+
+    private HttpClientRegistry() {
+    }
+
+    private static class ConnectionsCountingInterceptor implements Interceptor {
+
+        @NonNull
+        @Override
+        public Response intercept(@NonNull final Chain chain) throws IOException {
+            final Connection connection = chain.connection();
+            if (connection != null) {
+                if (KNOWN_CONNECTIONS.put(connection, Boolean.TRUE) == null) {
+                    NEW_CONNECTIONS_COUNT.incrementAndGet();
+                } else {
+                    REUSED_CONNECTIONS_COUNT.incrementAndGet();
+                }
+            }
+            return chain.proceed(chain.request());
+        }
+
+    }
+
+}
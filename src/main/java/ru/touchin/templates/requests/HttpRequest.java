@@ -21,7 +21,6 @@ package ru.touchin.templates.requests;
 
 import android.support.annotation.NonNull;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
@@ -97,14 +96,16 @@ public abstract class HttpRequest<T> {
     protected abstract String baseUrl();
 
     /**
-     * Creates {@link OkHttpClient} object.
-     * Could be override if you want to specify client.
+     * Returns {@link OkHttpClient} object to execute request.
+     * By default it is shared client from {@link HttpClientRegistry} so connections are reused between requests.
+     * Could be override if you want to specify client. In that case better to derive it from shared one
+     * via {@link HttpClientRegistry#getSharedClient()}.newBuilder() to keep connection pool and dispatcher shared.
      *
      * @return Exemplar of {@link OkHttpClient}.
      */
     @NonNull
     protected OkHttpClient createHttpClient() {
-        return new OkHttpClient();
+        return HttpClientRegistry.getSharedClient();
     }
 
     /**
@@ -165,22 +166,47 @@ public abstract class HttpRequest<T> {
             Lc.d("Url requested: %s\n%s", requestController.request.url(), requestBodyToString(requestController.request));
         }
         final Response response = requestController.call.execute();
-        final ResponseBody responseBody = response.body();
-        final Charset charset = getCharset(responseBody);
-        final byte[] bytes = shouldLog ? response.body().bytes() : null;
-        if (shouldLog) {
-            Lc.d("Response for: %s has code %s and content: %s", requestController.request.url(), response.code(),
-                    new String(bytes, charset));
-        }
         if (getResponseResultType().equals(Response.class)) {
+            if (shouldLog) {
+                Lc.d("Response for: %s has code %s", requestController.request.url(), response.code());
+            }
             return handleResponse((T) response);
         }
+        final ResponseBody responseBody = response.body();
+        final String validator = shouldCacheParsedResponse(requestController, response)
+                ? ParsedResponseCache.getValidator(response)
+                : null;
+        if (validator != null && response.cacheResponse() != null) {
+            final T cachedResult = (T) ParsedResponseCache.get(getClass(), responseResultType, requestController.request, validator);
+            if (cachedResult != null) {
+                responseBody.close();
+                if (shouldLog) {
+                    Lc.d("Response for: %s is taken from cache", requestController.request.url());
+                }
+                return handleResponse(cachedResult);
+            }
+        }
+        final Charset charset = getCharset(responseBody);
+        final ParsedResponseCache.CountingInputStream countingInputStream = validator != null
+                ? new ParsedResponseCache.CountingInputStream(responseBody.byteStream())
+                : null;
+        final InputStream bodyInputStream = countingInputStream != null ? countingInputStream : responseBody.byteStream();
+        final InputStream inputStream = shouldLog
+                ? new LoggingInputStream(bodyInputStream,
+                String.format("Response for: %s has code %s and content: ", requestController.request.url(), response.code()), charset)
+                : bodyInputStream;
         final T result;
         try {
-            result = parse(responseResultType, charset, bytes == null ? response.body().byteStream() : new ByteArrayInputStream(bytes));
+            result = parse(responseResultType, charset, inputStream);
         } catch (final RuntimeException throwable) {
             Lc.assertion("Runtime exception during response parsing " + requestController.request.url());
             throw new IOException(throwable);
+        } finally {
+            inputStream.close();
+        }
+        if (countingInputStream != null) {
+            ParsedResponseCache.put(getClass(), responseResultType, requestController.request, validator, result,
+                    countingInputStream.getBytesCount());
         }
         return handleResponse(result);
     }
@@ -204,11 +230,51 @@ public abstract class HttpRequest<T> {
     public Observable<T> execute() {
         return Observable
                 .fromCallable(RequestController::new)
-                .switchMap(requestController -> Observable
-                        .fromCallable(() -> executeSyncInternal(requestController))
-                        .subscribeOn(Schedulers.io())
-                        .unsubscribeOn(Schedulers.io())
-                        .doOnUnsubscribe(requestController.call::cancel));
+                .switchMap(requestController -> {
+                    final Observable<T> execution = Observable
+                            .fromCallable(() -> executeSyncInternal(requestController))
+                            .subscribeOn(Schedulers.io())
+                            .unsubscribeOn(Schedulers.io())
+                            .doOnUnsubscribe(requestController.call::cancel);
+                    return shouldCoalesce(requestController.request)
+                            ? RequestCoalescer.coalesce(getClass(), responseResultType, requestController.request, execution)
+                            : execution;
+                });
+    }
+
+    /**
+     * Returns if concurrent executions of same GET request should share one network call and its parsed result.
+     * Override it and return true to enable it. Note that in that case subscribers are receiving same result object.
+     *
+     * @return True if coalescing of executions is enabled.
+     */
+    protected boolean isCoalescingEnabled() {
+        return false;
+    }
+
+    /**
+     * Returns if parsed result of request should be kept in {@link ParsedResponseCache}.
+     * Kept result is reused only if response is taken from HTTP cache (see {@link HttpClientRegistry#setCache(okhttp3.Cache)})
+     * and have same ETag/Last-Modified validators. Note that in that case callers are receiving same result object.
+     *
+     * @return True if parsed result caching is enabled.
+     */
+    protected boolean isParsedResponseCachingEnabled() {
+        return false;
+    }
+
+    private boolean shouldCacheParsedResponse(@NonNull final RequestController requestController, @NonNull final Response response) {
+        // without HTTP cache parsed result could never be reused
+        return isParsedResponseCachingEnabled()
+                && requestController.client.cache() != null
+                && "GET".equals(requestController.request.method())
+                && response.isSuccessful();
+    }
+
+    private boolean shouldCoalesce(@NonNull final Request request) {
+        return isCoalescingEnabled()
+                && "GET".equals(request.method())
+                && !getResponseResultType().equals(Response.class);
     }
 
     /**
@@ -225,14 +291,17 @@ public abstract class HttpRequest<T> {
 
     private class RequestController {
 
+        @NonNull
+        private final OkHttpClient client;
         @NonNull
         private final Request request;
         @NonNull
         private final Call call;
 
         public RequestController() throws IOException {
+            this.client = createHttpClient();
             this.request = createHttpRequest().build();
-            this.call = createHttpClient().newCall(this.request);
+            this.call = client.newCall(this.request);
         }
 
     }
@@ -0,0 +1,190 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.requests;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import okhttp3.HttpUrl;
+import rx.Observable;
+
+/**
+ * Utility class to execute bunch of {@link HttpRequest}s together with limited concurrency.
+ * Requests are started in round-robin order by host so requests to other hosts are not queued after all requests to one host.
+ * Only order of start is interleaved: concurrency is not limited per host, so slow requests to one host could still take all slots.
+ * Unsubscription from batch cancels all in-flight requests.
+ * By default failure of any request fails batch and cancels all other requests,
+ * use {@link #execute(Collection, int, boolean, boolean)} with delayErrors to get results of all succeeded requests.
+ */
+public final class HttpRequestBatch {
+
+    /**
+     * Executes requests with bounded concurrency and emits their results.
+     * Failure of any request is emitted immediately as error and cancels all other requests.
+     *
+     * @param requests       Requests to execute;
+     * @param maxConcurrency Maximum count of simultaneously executing requests;
+     * @param preserveOrder  If true then results are emitted in order of requests, otherwise - in order of completion;
+     * @param <T>            Type of results;
+     * @return {@link Observable} that emits results of requests;
+     * @throws IllegalArgumentException If maxConcurrency is not positive.
+     */
+    @NonNull
+    public static <T> Observable<T> execute(@NonNull final Collection<? extends HttpRequest<? extends T>> requests,
+                                            final int maxConcurrency,
+                                            final boolean preserveOrder) {
+        return execute(requests, maxConcurrency, preserveOrder, false);
+    }
+
+    /**
+     * Executes requests with bounded concurrency and emits their results.
+     *
+     * @param requests       Requests to execute;
+     * @param maxConcurrency Maximum count of simultaneously executing requests;
+     * @param preserveOrder  If true then results are emitted in order of requests, otherwise - in order of completion;
+     * @param delayErrors    If true then failed requests are not cancelling other ones and errors are emitted after results of all requests
+     *                       (as {@link rx.exceptions.CompositeException} if few requests failed),
+     *                       otherwise failure of any request is emitted immediately and cancels all other requests;
+     * @param <T>            Type of results;
+     * @return {@link Observable} that emits results of requests;
+     * @throws IllegalArgumentException If maxConcurrency is not positive.
+     */
+    @NonNull
+    public static <T> Observable<T> execute(@NonNull final Collection<? extends HttpRequest<? extends T>> requests,
+                                            final int maxConcurrency,
+                                            final boolean preserveOrder,
+                                            final boolean delayErrors) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency should be positive but it is " + maxConcurrency);
+        }
+        return Observable.defer(() -> {
+            final Observable<Observable<IndexedResult<T>>> executions = Observable
+                    .from(interleaveByHost(requests))
+                    .map(indexedRequest -> executeIndexed(indexedRequest, delayErrors));
+            final Observable<IndexedResult<T>> results = delayErrors
+                    ? Observable.mergeDelayError(executions, maxConcurrency)
+                    : Observable.merge(executions, maxConcurrency);
+            return preserveOrder
+                    ? reorder(results)
+                    : results.filter(indexedResult -> indexedResult.result != null).map(indexedResult -> indexedResult.result);
+        });
+    }
+
+    @NonNull
+    private static <T> Observable<IndexedResult<T>> executeIndexed(@NonNull final IndexedRequest<T> indexedRequest, final boolean delayErrors) {
+        final Observable<IndexedResult<T>> execution = indexedRequest.request.execute()
+                .map(result -> new IndexedResult<T>(indexedRequest.index, result));
+        if (!delayErrors) {
+            return execution;
+        }
+        // failed request emits empty result before error so reordering of results is not waiting for it
+        return execution.onErrorResumeNext(throwable -> Observable
+                .just(new IndexedResult<T>(indexedRequest.index, null))
+                .concatWith(Observable.error(throwable)));
+    }
+
+    @NonNull
+    private static <T> List<IndexedRequest<T>> interleaveByHost(@NonNull final Collection<? extends HttpRequest<? extends T>> requests) {
+        final Map<String, Queue<IndexedRequest<T>>> requestsByHost = new LinkedHashMap<>();
+        int index = 0;
+        for (final HttpRequest<? extends T> request : requests) {
+            final HttpUrl url = HttpUrl.parse(request.baseUrl());
+            final String host = url != null ? url.host() : "";
+            Queue<IndexedRequest<T>> hostRequests = requestsByHost.get(host);
+            if (hostRequests == null) {
+                hostRequests = new ArrayDeque<>();
+                requestsByHost.put(host, hostRequests);
+            }
+            hostRequests.add(new IndexedRequest<>(index, request));
+            index++;
+        }
+        final List<IndexedRequest<T>> result = new ArrayList<>(index);
+        while (!requestsByHost.isEmpty()) {
+            final Iterator<Queue<IndexedRequest<T>>> iterator = requestsByHost.values().iterator();
+            while (iterator.hasNext()) {
+                final Queue<IndexedRequest<T>> hostRequests = iterator.next();
+                result.add(hostRequests.remove());
+                if (hostRequests.isEmpty()) {
+                    iterator.remove();
+                }
+            }
+        }
+        return result;
+    }
+
+    @NonNull
+    private static <T> Observable<T> reorder(@NonNull final Observable<IndexedResult<T>> results) {
+        final Map<Integer, T> pendingResults = new HashMap<>();
+        final int[] nextIndex = new int[1];
+        return results.concatMap(indexedResult -> {
+            pendingResults.put(indexedResult.index, indexedResult.result);
+            final List<T> readyResults = new ArrayList<>();
+            while (pendingResults.containsKey(nextIndex[0])) {
+                final T result = pendingResults.remove(nextIndex[0]);
+                if (result != null) {
+                    readyResults.add(result);
+                }
+                nextIndex[0]++;
+            }
+            return Observable.from(readyResults);
+        });
+    }
+
+    private HttpRequestBatch() {
+    }
+
+    private static class IndexedRequest<T> {
+
+        private final int index;
+        @NonNull
+        private final HttpRequest<? extends T> request;
+
+        public IndexedRequest(final int index, @NonNull final HttpRequest<? extends T> request) {
+            this.index = index;
+            this.request = request;
+        }
+
+    }
+
+    private static class IndexedResult<T> {
+
+        private final int index;
+        // null if request failed
+        @Nullable
+        private final T result;
+
+        public IndexedResult(final int index, @Nullable final T result) {
+            this.index = index;
+            this.result = result;
+        }
+
+    }
+
+}
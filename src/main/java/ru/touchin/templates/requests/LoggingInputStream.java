@@ -0,0 +1,125 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.requests;
+
+import android.support.annotation.NonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+import ru.touchin.roboswag.core.log.Lc;
+
+/**
+ * Stream that passes data through to reader and remembers bounded prefix of it to log it on end of stream or on close.
+ * So response could be logged without buffering whole body in memory.
+ */
+public class LoggingInputStream extends FilterInputStream {
+
+    public static final int DEFAULT_MAX_LOGGED_BYTES = 64 * 1024;
+
+    @NonNull
+    private final String logPrefix;
+    @NonNull
+    private final Charset charset;
+    private final int maxLoggedBytes;
+    @NonNull
+    private final ByteArrayOutputStream loggedBytes = new ByteArrayOutputStream();
+    private long totalBytesCount;
+    private boolean logged;
+
+    public LoggingInputStream(@NonNull final InputStream inputStream, @NonNull final String logPrefix, @NonNull final Charset charset) {
+        this(inputStream, logPrefix, charset, DEFAULT_MAX_LOGGED_BYTES);
+    }
+
+    public LoggingInputStream(@NonNull final InputStream inputStream, @NonNull final String logPrefix, @NonNull final Charset charset,
+                              final int maxLoggedBytes) {
+        super(inputStream);
+        this.logPrefix = logPrefix;
+        this.charset = charset;
+        this.maxLoggedBytes = maxLoggedBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int result = super.read();
+        if (result < 0) {
+            logIfNeeded();
+        } else {
+            totalBytesCount++;
+            if (loggedBytes.size() < maxLoggedBytes) {
+                loggedBytes.write(result);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int read(@NonNull final byte[] buffer, final int offset, final int count) throws IOException {
+        final int result = super.read(buffer, offset, count);
+        if (result < 0) {
+            logIfNeeded();
+        } else {
+            totalBytesCount += result;
+            final int bytesToLog = Math.min(result, maxLoggedBytes - loggedBytes.size());
+            if (bytesToLog > 0) {
+                loggedBytes.write(buffer, offset, bytesToLog);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long skip(final long count) throws IOException {
+        final long result = super.skip(count);
+        totalBytesCount += result;
+        return result;
+    }
+
+    @Override
+    public boolean markSupported() {
+        // reset would make logged content inconsistent
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            logIfNeeded();
+        }
+    }
+
+    private void logIfNeeded() {
+        if (logged) {
+            return;
+        }
+        logged = true;
+        if (totalBytesCount > loggedBytes.size()) {
+            Lc.d("%s%s\n...(%s bytes more)", logPrefix, new String(loggedBytes.toByteArray(), charset), totalBytesCount - loggedBytes.size());
+        } else {
+            Lc.d("%s%s", logPrefix, new String(loggedBytes.toByteArray(), charset));
+        }
+    }
+
+}
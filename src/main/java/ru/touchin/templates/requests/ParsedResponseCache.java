@@ -0,0 +1,183 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.requests;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.LruCache;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * In-memory LRU cache of parsed responses of {@link HttpRequest}s.
+ * It is working together with HTTP cache of {@link HttpClientRegistry}: if response is taken from HTTP cache
+ * (directly or after 304 revalidation by ETag/Last-Modified) and its validators are same as validators of cached parsed object
+ * then parsed object is returned without parsing response again.
+ * Cache is bounded by estimated size of parsed objects which is size of response body they were parsed from.
+ */
+public final class ParsedResponseCache {
+
+    public static final int DEFAULT_MAX_SIZE_IN_BYTES = 1024 * 1024;
+
+    private static final Object LOCK = new Object();
+    @NonNull
+    private static LruCache<RequestKey, Entry> cache = createCache(DEFAULT_MAX_SIZE_IN_BYTES);
+
+    @NonNull
+    private static LruCache<RequestKey, Entry> createCache(final int maxSizeInBytes) {
+        return new LruCache<RequestKey, Entry>(maxSizeInBytes) {
+            @Override
+            protected int sizeOf(@NonNull final RequestKey key, @NonNull final Entry entry) {
+                return entry.sizeInBytes;
+            }
+        };
+    }
+
+    /**
+     * Sets maximum estimated size of parsed objects to keep in memory. Clears cache.
+     *
+     * @param maxSizeInBytes Maximum size of parsed objects.
+     */
+    public static void setMaxSize(final int maxSizeInBytes) {
+        synchronized (LOCK) {
+            cache = createCache(maxSizeInBytes);
+        }
+    }
+
+    /**
+     * Removes all parsed objects from cache.
+     */
+    public static void clear() {
+        synchronized (LOCK) {
+            cache.evictAll();
+        }
+    }
+
+    /**
+     * Returns validator (ETag and/or Last-Modified) of response.
+     *
+     * @param response Response to get validator from;
+     * @return Validator or null if response have no validators.
+     */
+    @Nullable
+    static String getValidator(@NonNull final Response response) {
+        final String eTag = response.header("ETag");
+        final String lastModified = response.header("Last-Modified");
+        if (eTag == null && lastModified == null) {
+            return null;
+        }
+        return eTag + '|' + lastModified;
+    }
+
+    @Nullable
+    static Object get(@NonNull final Class<?> requestClass, @NonNull final Class<?> responseResultType,
+                      @NonNull final Request request, @NonNull final String validator) {
+        final Entry entry;
+        synchronized (LOCK) {
+            entry = cache.get(new RequestKey(requestClass, responseResultType, request));
+        }
+        return entry != null && entry.validator.equals(validator) ? entry.value : null;
+    }
+
+    static void put(@NonNull final Class<?> requestClass, @NonNull final Class<?> responseResultType, @NonNull final Request request,
+                    @NonNull final String validator, @NonNull final Object value, final long sizeInBytes) {
+        if (sizeInBytes < 0 || sizeInBytes > Integer.MAX_VALUE) {
+            return;
+        }
+        synchronized (LOCK) {
+            if (sizeInBytes <= cache.maxSize()) {
+                cache.put(new RequestKey(requestClass, responseResultType, request), new Entry(validator, value, (int) sizeInBytes));
+            }
+        }
+    }
+
+    private ParsedResponseCache() {
+    }
+
+    private static class Entry {
+
+        @NonNull
+        private final String validator;
+        @NonNull
+        private final Object value;
+        private final int sizeInBytes;
+
+        public Entry(@NonNull final String validator, @NonNull final Object value, final int sizeInBytes) {
+            this.validator = validator;
+            this.value = value;
+            this.sizeInBytes = sizeInBytes;
+        }
+
+    }
+
+    /**
+     * Stream that counts bytes read from it to estimate size of object parsed from it.
+     */
+    static class CountingInputStream extends FilterInputStream {
+
+        private long bytesCount;
+
+        public CountingInputStream(@NonNull final InputStream inputStream) {
+            super(inputStream);
+        }
+
+        public long getBytesCount() {
+            return bytesCount;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int result = super.read();
+            if (result >= 0) {
+                bytesCount++;
+            }
+            return result;
+        }
+
+        @Override
+        public int read(@NonNull final byte[] buffer, final int offset, final int count) throws IOException {
+            final int result = super.read(buffer, offset, count);
+            if (result > 0) {
+                bytesCount += result;
+            }
+            return result;
+        }
+
+        @Override
+        public long skip(final long count) throws IOException {
+            final long result = super.skip(count);
+            bytesCount += result;
+            return result;
+        }
+
+        @Override
+        public boolean markSupported() {
+            // reset would break counting
+            return false;
+        }
+
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.requests;
+
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Request;
+import rx.Observable;
+
+/**
+ * Single-flight layer for {@link HttpRequest}s.
+ * Concurrent executions of same request (same request class, result type, method, URL and headers) are sharing one in-flight {@link Observable}
+ * and its parsed result. Execution is removed from in-flight ones as soon as it is finished so next execution will go to network again.
+ */
+public final class RequestCoalescer {
+
+    @NonNull
+    private static final ConcurrentMap<RequestKey, Observable<?>> IN_FLIGHT_REQUESTS = new ConcurrentHashMap<>();
+    @NonNull
+    private static final AtomicLong HITS_COUNT = new AtomicLong();
+    @NonNull
+    private static final AtomicLong MISSES_COUNT = new AtomicLong();
+
+    /**
+     * Returns {@link Observable} which is sharing execution with other in-flight executions of same request or starts new execution.
+     *
+     * @param requestClass       Class of {@link HttpRequest} as it defines parsing of response;
+     * @param responseResultType Type of parsed result of request;
+     * @param request            Built request to be executed;
+     * @param execution          {@link Observable} that is executing request;
+     * @param <T>                Type of result;
+     * @return Shared {@link Observable} of execution.
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    //unchecked: it's OK as key contains type of result
+    public static <T> Observable<T> coalesce(@NonNull final Class<?> requestClass,
+                                             @NonNull final Class<T> responseResultType,
+                                             @NonNull final Request request,
+                                             @NonNull final Observable<T> execution) {
+        final RequestKey key = new RequestKey(requestClass, responseResultType, request);
+        final Observable<T> existingExecution = (Observable<T>) IN_FLIGHT_REQUESTS.get(key);
+        if (existingExecution != null) {
+            HITS_COUNT.incrementAndGet();
+            return existingExecution;
+        }
+        final Observable<T>[] sharedExecutionHolder = new Observable[1];
+        final Observable<T> sharedExecution = execution
+                .doOnTerminate(() -> IN_FLIGHT_REQUESTS.remove(key, sharedExecutionHolder[0]))
+                .doOnUnsubscribe(() -> IN_FLIGHT_REQUESTS.remove(key, sharedExecutionHolder[0]))
+                .replay(1)
+                .refCount();
+        sharedExecutionHolder[0] = sharedExecution;
+        final Observable<T> raceWinner = (Observable<T>) IN_FLIGHT_REQUESTS.putIfAbsent(key, sharedExecution);
+        if (raceWinner != null) {
+            HITS_COUNT.incrementAndGet();
+            return raceWinner;
+        }
+        MISSES_COUNT.incrementAndGet();
+        return sharedExecution;
+    }
+
+    /**
+     * Returns count of executions that were joined to already in-flight ones.
+     *
+     * @return Count of hits.
+     */
+    public static long getHitsCount() {
+        return HITS_COUNT.get();
+    }
+
+    /**
+     * Returns count of executions that went to network.
+     *
+     * @return Count of misses.
+     */
+    public static long getMissesCount() {
+        return MISSES_COUNT.get();
+    }
+
+    /**
+     * Resets hits and misses counters.
+     */
+    public static void resetCounters() {
+        HITS_COUNT.set(0);
+        MISSES_COUNT.set(0);
+    }
+
+    private RequestCoalescer() {
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.requests;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+
+/**
+ * Key that identifies same requests: same {@link HttpRequest} class and result type (as they define parsing), method, URL and headers.
+ */
+class RequestKey {
+
+    @NonNull
+    private final Class<?> requestClass;
+    @NonNull
+    private final Class<?> responseResultType;
+    @NonNull
+    private final String method;
+    @NonNull
+    private final HttpUrl url;
+    @NonNull
+    private final Headers headers;
+
+    public RequestKey(@NonNull final Class<?> requestClass, @NonNull final Class<?> responseResultType, @NonNull final Request request) {
+        this.requestClass = requestClass;
+        this.responseResultType = responseResultType;
+        this.method = request.method();
+        this.url = request.url();
+        this.headers = request.headers();
+    }
+
+    @Override
+    public boolean equals(@Nullable final Object object) {
+        return object instanceof RequestKey
+                && ((RequestKey) object).requestClass.equals(requestClass)
+                && ((RequestKey) object).responseResultType.equals(responseResultType)
+                && ((RequestKey) object).method.equals(method)
+                && ((RequestKey) object).url.equals(url)
+                && ((RequestKey) object).headers.equals(headers);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = requestClass.hashCode();
+        result = 31 * result + responseResultType.hashCode();
+        result = 31 * result + method.hashCode();
+        result = 31 * result + url.hashCode();
+        return 31 * result + headers.hashCode();
+    }
+
+}
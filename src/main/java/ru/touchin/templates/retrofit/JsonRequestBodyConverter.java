@@ -23,16 +23,22 @@ package ru.touchin.templates.retrofit;
 import android.support.annotation.NonNull;
 
 import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 import okhttp3.MediaType;
 import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
 import retrofit2.Converter;
 import ru.touchin.templates.ApiModel;
 
 /**
  * Created by Gavriil Sitnikov on 14/02/2017.
  * Object to serialize bodies of remote requests for Retrofit.
+ * By default body is serialized in {@link #convert(Object)} into segmented buffer and sent with Content-Length.
+ * Override {@link #isStreamingEnabled()} to serialize body directly into request stream without buffering and Content-Length.
  *
  * @param <T> Type of body object.
  */
@@ -46,9 +52,23 @@ public abstract class JsonRequestBodyConverter<T> implements Converter<T, Reques
         if (value instanceof ApiModel) {
             ((ApiModel) value).validate();
         }
-        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        writeValueToByteArray(value, byteArrayOutputStream);
-        return RequestBody.create(MEDIA_TYPE, byteArrayOutputStream.toByteArray());
+        if (isStreamingEnabled()) {
+            return new StreamingRequestBody(value);
+        }
+        final Buffer buffer = new Buffer();
+        writeValueToStream(value, buffer.outputStream());
+        return new BufferRequestBody(buffer);
+    }
+
+    /**
+     * Returns if body should be serialized directly into request stream while sending.
+     * In that case body is sent without Content-Length header and serialization errors are thrown during sending of request.
+     * Override it to not hold whole serialized body in memory.
+     *
+     * @return True if body should be streamed.
+     */
+    protected boolean isStreamingEnabled() {
+        return false;
     }
 
     /**
@@ -60,4 +80,92 @@ public abstract class JsonRequestBodyConverter<T> implements Converter<T, Reques
      */
     protected abstract void writeValueToByteArray(@NonNull T value, @NonNull ByteArrayOutputStream byteArrayOutputStream) throws IOException;
 
+    /**
+     * Serializing value to any byte stream. By default it is serializing value by {@link #writeValueToByteArray(Object, ByteArrayOutputStream)}
+     * and copying bytes to stream. Override it to write value directly into stream.
+     *
+     * @param value        Value to serialize;
+     * @param outputStream Byte stream to write serialized bytes. It should not be closed;
+     * @throws IOException Throws on serialization.
+     */
+    protected void writeValueToStream(@NonNull final T value, @NonNull final OutputStream outputStream) throws IOException {
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        writeValueToByteArray(value, byteArrayOutputStream);
+        byteArrayOutputStream.writeTo(outputStream);
+    }
+
+    private static class BufferRequestBody extends RequestBody {
+
+        @NonNull
+        private final Buffer buffer;
+
+        public BufferRequestBody(@NonNull final Buffer buffer) {
+            super();
+            this.buffer = buffer;
+        }
+
+        @NonNull
+        @Override
+        public MediaType contentType() {
+            return MEDIA_TYPE;
+        }
+
+        @Override
+        public long contentLength() {
+            return buffer.size();
+        }
+
+        @Override
+        public void writeTo(@NonNull final BufferedSink sink) throws IOException {
+            // clone is sharing segments so it is not copying bytes and body could be written several times (e.g. on retry)
+            sink.write(buffer.clone(), buffer.size());
+        }
+
+    }
+
+    private class StreamingRequestBody extends RequestBody {
+
+        @NonNull
+        private final T value;
+
+        public StreamingRequestBody(@NonNull final T value) {
+            super();
+            this.value = value;
+        }
+
+        @NonNull
+        @Override
+        public MediaType contentType() {
+            return MEDIA_TYPE;
+        }
+
+        @Override
+        public void writeTo(@NonNull final BufferedSink sink) throws IOException {
+            writeValueToStream(value, new NonClosingOutputStream(sink.outputStream()));
+            sink.flush();
+        }
+
+    }
+
+    /**
+     * Some serializers are closing stream after writing. Request sink should be closed only by OkHttp itself.
+     */
+    private static class NonClosingOutputStream extends FilterOutputStream {
+
+        public NonClosingOutputStream(@NonNull final OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        public void write(@NonNull final byte[] buffer, final int offset, final int count) throws IOException {
+            out.write(buffer, offset, count);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+    }
+
 }
@@ -20,9 +20,11 @@
 package ru.touchin.templates.retrofit;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import java.io.IOException;
 import java.io.InterruptedIOException;
+import java.lang.annotation.Annotation;
 import java.net.SocketException;
 import java.util.Collection;
 import java.util.Map;
@@ -32,6 +34,11 @@ import javax.net.ssl.SSLException;
 import okhttp3.ResponseBody;
 import okhttp3.internal.http2.StreamResetException;
 import retrofit2.Converter;
+import retrofit2.http.DELETE;
+import retrofit2.http.GET;
+import retrofit2.http.PATCH;
+import retrofit2.http.POST;
+import retrofit2.http.PUT;
 import ru.touchin.roboswag.core.log.Lc;
 import ru.touchin.templates.ApiModel;
 
@@ -43,14 +50,53 @@ import ru.touchin.templates.ApiModel;
  */
 public abstract class JsonResponseBodyConverter<T> implements Converter<ResponseBody, T> {
 
+    /**
+     * Returns name of endpoint by Retrofit method annotations (e.g. "GET users/{id}") to use it in {@link ValidationMetrics}.
+     *
+     * @param annotations Annotations of Retrofit method;
+     * @return Name of endpoint or null if there is no HTTP method annotation.
+     */
+    @Nullable
+    public static String getEndpointName(@NonNull final Annotation[] annotations) {
+        for (final Annotation annotation : annotations) {
+            if (annotation instanceof GET) {
+                return "GET " + ((GET) annotation).value();
+            } else if (annotation instanceof POST) {
+                return "POST " + ((POST) annotation).value();
+            } else if (annotation instanceof PUT) {
+                return "PUT " + ((PUT) annotation).value();
+            } else if (annotation instanceof PATCH) {
+                return "PATCH " + ((PATCH) annotation).value();
+            } else if (annotation instanceof DELETE) {
+                return "DELETE " + ((DELETE) annotation).value();
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private final String endpointName;
+
+    public JsonResponseBodyConverter() {
+        this(null);
+    }
+
+    public JsonResponseBodyConverter(@Nullable final String endpointName) {
+        this.endpointName = endpointName;
+    }
+
     @SuppressWarnings("PMD.AvoidInstanceofChecksInCatchClause")
     //AvoidInstanceofChecksInCatchClause: we just don't need assertion on specific exceptions
     @NonNull
     @Override
     public T convert(@NonNull final ResponseBody value) throws IOException {
+        final ApiModel.CollectionItemsValidator itemsValidator = new ApiModel.CollectionItemsValidator(getValidateCollectionRule());
         final T result;
         try {
-            result = parseResponse(value);
+            result = parseResponse(value, itemsValidator);
+        } catch (final ApiModel.ValidationException validationException) {
+            Lc.assertion(validationException);
+            throw validationException;
         } catch (final IOException exception) {
             if (!(exception instanceof SocketException)
                     && !(exception instanceof InterruptedIOException)
@@ -63,14 +109,18 @@ public abstract class JsonResponseBodyConverter<T> implements Converter<Response
             value.close();
         }
 
+        final long startTime = System.nanoTime();
         if (result instanceof ApiModel) {
             validateModel((ApiModel) result);
         }
-        if (result instanceof Collection) {
+        if (result instanceof Collection && !itemsValidator.isFinished()) {
             validateCollection((Collection) result);
         }
         if (result instanceof Map) {
-            validateCollection(((Map)result).values());
+            validateCollection(((Map) result).values());
+        }
+        if (endpointName != null) {
+            ValidationMetrics.record(endpointName, System.nanoTime() - startTime + itemsValidator.getValidationNanos());
         }
 
         return result;
@@ -109,4 +159,21 @@ public abstract class JsonResponseBodyConverter<T> implements Converter<Response
     @NonNull
     protected abstract T parseResponse(@NonNull ResponseBody value) throws IOException;
 
+    /**
+     * Parses response to specific object validating collection items while they are being parsed.
+     * Override it if parser could parse collections item by item. In that case {@link ApiModel.CollectionItemsValidator#finish()}
+     * should be called after parsing of collection so collection will not be validated again after parsing.
+     * By default it just calls {@link #parseResponse(ResponseBody)}.
+     *
+     * @param value          Response to parse;
+     * @param itemsValidator Validator of collection items;
+     * @return Parsed object;
+     * @throws IOException Throws during parsing.
+     */
+    @NonNull
+    protected T parseResponse(@NonNull final ResponseBody value, @NonNull final ApiModel.CollectionItemsValidator itemsValidator)
+            throws IOException {
+        return parseResponse(value);
+    }
+
 }
\ No newline at end of file
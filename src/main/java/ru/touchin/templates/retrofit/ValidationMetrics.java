@@ -0,0 +1,129 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.retrofit;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects time spent on validation of responses by endpoints.
+ */
+public final class ValidationMetrics {
+
+    @NonNull
+    private static final ConcurrentMap<String, EndpointMetrics> METRICS = new ConcurrentHashMap<>();
+
+    /**
+     * Records validation of one response.
+     *
+     * @param endpointName    Name of endpoint;
+     * @param validationNanos Time spent on validation in nanoseconds.
+     */
+    public static void record(@NonNull final String endpointName, final long validationNanos) {
+        EndpointMetrics endpointMetrics = METRICS.get(endpointName);
+        if (endpointMetrics == null) {
+            final EndpointMetrics newEndpointMetrics = new EndpointMetrics();
+            endpointMetrics = METRICS.putIfAbsent(endpointName, newEndpointMetrics);
+            if (endpointMetrics == null) {
+                endpointMetrics = newEndpointMetrics;
+            }
+        }
+        endpointMetrics.record(validationNanos);
+    }
+
+    /**
+     * Returns metrics of endpoint.
+     *
+     * @param endpointName Name of endpoint;
+     * @return Metrics or null if there were no validations of endpoint responses.
+     */
+    @Nullable
+    public static EndpointMetrics get(@NonNull final String endpointName) {
+        return METRICS.get(endpointName);
+    }
+
+    /**
+     * Returns metrics of all endpoints.
+     *
+     * @return Map of endpoint names to metrics.
+     */
+    @NonNull
+    public static Map<String, EndpointMetrics> getAll() {
+        return new HashMap<>(METRICS);
+    }
+
+    /**
+     * Removes all collected metrics.
+     */
+    public static void reset() {
+        METRICS.clear();
+    }
+
+    private ValidationMetrics() {
+    }
+
+    /**
+     * Validation time metrics of one endpoint.
+     */
+    public static class EndpointMetrics {
+
+        @NonNull
+        private final AtomicLong validationsCount = new AtomicLong();
+        @NonNull
+        private final AtomicLong totalValidationNanos = new AtomicLong();
+        @NonNull
+        private final AtomicLong maxValidationNanos = new AtomicLong();
+
+        private void record(final long validationNanos) {
+            validationsCount.incrementAndGet();
+            totalValidationNanos.addAndGet(validationNanos);
+            long currentMax = maxValidationNanos.get();
+            while (validationNanos > currentMax && !maxValidationNanos.compareAndSet(currentMax, validationNanos)) {
+                currentMax = maxValidationNanos.get();
+            }
+        }
+
+        public long getValidationsCount() {
+            return validationsCount.get();
+        }
+
+        public long getTotalValidationNanos() {
+            return totalValidationNanos.get();
+        }
+
+        public long getMaxValidationNanos() {
+            return maxValidationNanos.get();
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "count: " + getValidationsCount() + ", total: " + getTotalValidationNanos() + "ns, max: " + getMaxValidationNanos() + "ns";
+        }
+
+    }
+
+}
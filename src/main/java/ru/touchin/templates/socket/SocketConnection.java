@@ -185,8 +185,10 @@ public abstract class SocketConnection {
                 return;
             }
             try {
-                final byte[] response = args[0] instanceof byte[] ? (byte[]) args[0] : args[0].toString().getBytes();
-                final TMessage message = socketEvent.parse(response);
+                // binary frames are parsed from bytes and text frames are parsed directly without converting to bytes
+                final TMessage message = args[0] instanceof byte[]
+                        ? socketEvent.parse((byte[]) args[0])
+                        : socketEvent.parse(args[0].toString());
                 if (socketEvent.getEventDataHandler() != null) {
                     socketEvent.getEventDataHandler().handleMessage(message);
                 }
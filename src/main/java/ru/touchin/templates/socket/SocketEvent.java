@@ -23,6 +23,7 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
 
 /**
  * Created by Gavriil Sitnikov on 29/02/16.
@@ -32,6 +33,8 @@ import java.io.IOException;
  */
 public abstract class SocketEvent<TMessage> {
 
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
     @NonNull
     private final String name;
     @NonNull
@@ -86,6 +89,19 @@ public abstract class SocketEvent<TMessage> {
     @NonNull
     public abstract TMessage parse(@NonNull final byte[] data) throws IOException;
 
+    /**
+     * Parses input string to message.
+     * By default it is converting string to UTF-8 bytes and calls {@link #parse(byte[])}. Override it to parse strings directly.
+     *
+     * @param data Input string;
+     * @return Message object;
+     * @throws IOException Exception during parsing.
+     */
+    @NonNull
+    public TMessage parse(@NonNull final String data) throws IOException {
+        return parse(data.getBytes(UTF_8));
+    }
+
     @Override
     public boolean equals(@Nullable final Object object) {
         return object instanceof SocketEvent
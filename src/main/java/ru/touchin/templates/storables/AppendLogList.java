@@ -0,0 +1,421 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.storables;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.text.TextUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import ru.touchin.roboswag.core.log.Lc;
+import ru.touchin.roboswag.core.observables.storable.Converter;
+import ru.touchin.roboswag.core.utils.ShouldNotHappenException;
+import rx.Completable;
+import rx.Observable;
+import rx.Scheduler;
+import rx.Single;
+import rx.functions.Action1;
+import rx.functions.Func1;
+import rx.schedulers.Schedulers;
+import rx.subjects.BehaviorSubject;
+
+/**
+ * List that is stored in files as snapshot of items plus log of changes made after snapshot.
+ * Adding or removing of item appends one line into log instead of rewriting of whole list,
+ * so it fits lists that are growing by one item (like chat history or recent items).
+ * On load snapshot is read and log is replayed over it. When log grows past threshold
+ * it is compacted into new snapshot in background.
+ * Every change is applied to items only after its log line is appended. Log lines are terminated by line separator,
+ * so if process dies during appending then partially written last line is dropped (and cut from log) on next load.
+ * Snapshot is written into temporary file which is synced and then renamed. Snapshot holds number of its generation
+ * and log is bound to generation, so if process dies during compaction old snapshot with its log or new snapshot without log
+ * is loaded and no change is applied twice. Logs of other generations which are left if process dies during compaction
+ * are deleted on load. Log is not synced on every change, so on power loss last changes could be lost.
+ * I/O errors are emitted as errors of returned {@link Observable}s and {@link Completable}s.
+ * If files could not be loaded then all operations are failing and files are not rewritten.
+ * Items are stored one per line so item converter should produce single line strings (any not pretty-printed JSON does).
+ * Emitted lists are copied from items lazily: at most once per change and only if list is observed.
+ *
+ * @param <T> Type of items.
+ */
+public class AppendLogList<T> {
+
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 100;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+    private static final String SNAPSHOT_FILE_SUFFIX = ".snapshot";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final String LOG_FILE_SUFFIX = ".log";
+    private static final char LINE_SEPARATOR = '\n';
+    private static final char GENERATION_PREFIX = '#';
+    private static final char ADD_PREFIX = '+';
+    private static final char REMOVE_PREFIX = '-';
+    @NonNull
+    private static final Scheduler STORE_SCHEDULER = Schedulers.from(Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "AppendLogList");
+        thread.setDaemon(true);
+        return thread;
+    }));
+
+    @NonNull
+    private final File directory;
+    @NonNull
+    private final String name;
+    @NonNull
+    private final Class<T> itemClass;
+    @NonNull
+    private final Converter<T, String> itemConverter;
+    private final int compactionThreshold;
+    // emits on STORE_SCHEDULER after every change, lists are created from items on demand
+    @NonNull
+    private final BehaviorSubject<Long> changesSubject = BehaviorSubject.create();
+    // fields below are accessed only on STORE_SCHEDULER
+    @Nullable
+    private List<T> items;
+    @Nullable
+    private List<T> itemsSnapshot;
+    private long changesCount;
+    private long generation;
+    private int logLinesCount;
+
+    public AppendLogList(@NonNull final File directory, @NonNull final String name,
+                         @NonNull final Class<T> itemClass, @NonNull final Converter<T, String> itemConverter) {
+        this(directory, name, itemClass, itemConverter, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    public AppendLogList(@NonNull final File directory, @NonNull final String name,
+                         @NonNull final Class<T> itemClass, @NonNull final Converter<T, String> itemConverter,
+                         final int compactionThreshold) {
+        this.directory = directory;
+        this.name = name;
+        this.itemClass = itemClass;
+        this.itemConverter = itemConverter;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Returns {@link Observable} which is emitting actual items of list on every change.
+     *
+     * @return {@link Observable} of unmodifiable lists.
+     */
+    @NonNull
+    public Observable<List<T>> observe() {
+        // changes are emitted on STORE_SCHEDULER (including initial one as subscription is made there) so items are read safely
+        return Completable
+                .fromCallable(() -> {
+                    ensureLoaded();
+                    return null;
+                })
+                .subscribeOn(STORE_SCHEDULER)
+                .andThen(changesSubject)
+                .map(changeNumber -> getItemsSnapshot());
+    }
+
+    /**
+     * Returns actual items of list.
+     *
+     * @return {@link Single} of unmodifiable list.
+     */
+    @NonNull
+    public Single<List<T>> get() {
+        return observe().first().toSingle();
+    }
+
+    /**
+     * Adds item to the end of list.
+     *
+     * @param item Item to add;
+     * @return {@link Completable} which completes when item is stored.
+     */
+    @NonNull
+    public Completable add(@NonNull final T item) {
+        return change(items -> ADD_PREFIX + toLine(item), items -> items.add(item));
+    }
+
+    /**
+     * Removes item at position.
+     *
+     * @param position Position of item to remove;
+     * @return {@link Completable} which completes when removal is stored.
+     */
+    @NonNull
+    public Completable remove(final int position) {
+        return change(items -> {
+            if (position < 0 || position >= items.size()) {
+                throw new IndexOutOfBoundsException("Position " + position + " is out of list of size " + items.size());
+            }
+            return REMOVE_PREFIX + Integer.toString(position);
+        }, items -> items.remove(position));
+    }
+
+    /**
+     * Removes all items.
+     *
+     * @return {@link Completable} which completes when removal is stored.
+     */
+    @NonNull
+    public Completable clear() {
+        return Completable
+                .fromCallable(() -> {
+                    ensureLoaded();
+                    compact(Collections.emptyList());
+                    items.clear();
+                    onItemsChanged();
+                    return null;
+                })
+                .subscribeOn(STORE_SCHEDULER);
+    }
+
+    @NonNull
+    private Completable change(@NonNull final Func1<List<T>, String> logLineCreator, @NonNull final Action1<List<T>> action) {
+        return Completable
+                .fromCallable(() -> {
+                    ensureLoaded();
+                    appendLogLine(logLineCreator.call(items));
+                    action.call(items);
+                    onItemsChanged();
+                    if (logLinesCount >= compactionThreshold) {
+                        final Scheduler.Worker worker = STORE_SCHEDULER.createWorker();
+                        worker.schedule(() -> {
+                            // compaction could be already done by previous scheduled one
+                            if (logLinesCount >= compactionThreshold) {
+                                try {
+                                    compact(items);
+                                } catch (final IOException exception) {
+                                    Lc.assertion(exception);
+                                }
+                            }
+                            worker.unsubscribe();
+                        });
+                    }
+                    return null;
+                })
+                .subscribeOn(STORE_SCHEDULER);
+    }
+
+    private void onItemsChanged() {
+        itemsSnapshot = null;
+        changesSubject.onNext(++changesCount);
+    }
+
+    @NonNull
+    private List<T> getItemsSnapshot() {
+        if (itemsSnapshot == null) {
+            itemsSnapshot = Collections.unmodifiableList(new ArrayList<>(items));
+        }
+        return itemsSnapshot;
+    }
+
+    @NonNull
+    private String toLine(@NonNull final T item) {
+        final String line = itemConverter.toStoreObject(itemClass, String.class, item);
+        if (line == null || line.indexOf(LINE_SEPARATOR) >= 0) {
+            throw new ShouldNotHappenException("Item should be converted into single line: " + item);
+        }
+        return line;
+    }
+
+    @NonNull
+    private File getSnapshotFile() {
+        return new File(directory, name + SNAPSHOT_FILE_SUFFIX);
+    }
+
+    @NonNull
+    private File getLogFile(final long generation) {
+        return new File(directory, name + '.' + generation + LOG_FILE_SUFFIX);
+    }
+
+    private void ensureLoaded() throws IOException {
+        if (items != null) {
+            return;
+        }
+        // if loading fails then items are staying not loaded so broken files are not rewritten by changes or compaction
+        final List<T> loadedItems = new ArrayList<>();
+        try {
+            readSnapshot(loadedItems);
+            replayLog(loadedItems);
+        } catch (final RuntimeException exception) {
+            // item could not be parsed or log line is not matching items
+            throw new IOException("Can't load " + name, exception);
+        }
+        deleteStaleLogFiles();
+        items = loadedItems;
+        onItemsChanged();
+    }
+
+    private void deleteStaleLogFiles() {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        final String logFilePrefix = name + '.';
+        final String actualGeneration = Long.toString(generation);
+        for (final File file : files) {
+            final String fileName = file.getName();
+            if (!fileName.startsWith(logFilePrefix) || !fileName.endsWith(LOG_FILE_SUFFIX)) {
+                continue;
+            }
+            final String fileGeneration = fileName.substring(logFilePrefix.length(), fileName.length() - LOG_FILE_SUFFIX.length());
+            // checking digits so files of other lists (e.g. with name "name.1") are not touched
+            if (!fileGeneration.isEmpty() && TextUtils.isDigitsOnly(fileGeneration) && !fileGeneration.equals(actualGeneration)
+                    && !file.delete()) {
+                Lc.w("Can't delete stale log file %s", file);
+            }
+        }
+    }
+
+    private void readSnapshot(@NonNull final List<T> loadedItems) throws IOException {
+        final File snapshotFile = getSnapshotFile();
+        if (!snapshotFile.exists()) {
+            return;
+        }
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(snapshotFile), UTF_8));
+        try {
+            String line = reader.readLine();
+            if (line == null || line.isEmpty() || line.charAt(0) != GENERATION_PREFIX) {
+                throw new IOException("Snapshot of " + name + " has no generation");
+            }
+            generation = Long.parseLong(line.substring(1));
+            while ((line = reader.readLine()) != null) {
+                loadedItems.add(itemConverter.toObject(itemClass, String.class, line));
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private void replayLog(@NonNull final List<T> loadedItems) throws IOException {
+        final File logFile = getLogFile(generation);
+        if (!logFile.exists()) {
+            return;
+        }
+        final byte[] bytes = readBytes(logFile);
+        int completeLength = bytes.length;
+        while (completeLength > 0 && bytes[completeLength - 1] != LINE_SEPARATOR) {
+            completeLength--;
+        }
+        if (completeLength < bytes.length) {
+            // last line was written partially as process died during writing, so cutting it to not prepend it to next line
+            Lc.w("Dropped partially written log line of %s", name);
+            final RandomAccessFile file = new RandomAccessFile(logFile, "rw");
+            try {
+                file.setLength(completeLength);
+            } finally {
+                file.close();
+            }
+        }
+        for (final String line : new String(bytes, 0, completeLength, UTF_8).split(String.valueOf(LINE_SEPARATOR))) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (line.charAt(0) == ADD_PREFIX) {
+                loadedItems.add(itemConverter.toObject(itemClass, String.class, line.substring(1)));
+            } else if (line.charAt(0) == REMOVE_PREFIX) {
+                loadedItems.remove(Integer.parseInt(line.substring(1)));
+            } else {
+                throw new IOException("Unknown log line of " + name + ": " + line);
+            }
+            logLinesCount++;
+        }
+    }
+
+    @NonNull
+    private byte[] readBytes(@NonNull final File file) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream((int) file.length());
+        final InputStream inputStream = new FileInputStream(file);
+        try {
+            final byte[] buffer = new byte[READ_BUFFER_SIZE];
+            int count;
+            while ((count = inputStream.read(buffer)) >= 0) {
+                outputStream.write(buffer, 0, count);
+            }
+        } finally {
+            inputStream.close();
+        }
+        return outputStream.toByteArray();
+    }
+
+    private void appendLogLine(@NonNull final String line) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Can't create directory " + directory);
+        }
+        final Writer writer = new OutputStreamWriter(new FileOutputStream(getLogFile(generation), true), UTF_8);
+        try {
+            writer.write(line);
+            writer.write(LINE_SEPARATOR);
+        } finally {
+            writer.close();
+        }
+        logLinesCount++;
+    }
+
+    private void compact(@NonNull final List<T> actualItems) throws IOException {
+        final long newGeneration = generation + 1;
+        writeSnapshot(newGeneration, actualItems);
+        final File oldLogFile = getLogFile(generation);
+        generation = newGeneration;
+        logLinesCount = 0;
+        if (oldLogFile.exists() && !oldLogFile.delete()) {
+            Lc.w("Can't delete log file %s", oldLogFile);
+        }
+    }
+
+    private void writeSnapshot(final long newGeneration, @NonNull final List<T> actualItems) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Can't create directory " + directory);
+        }
+        final File tempFile = new File(directory, name + SNAPSHOT_FILE_SUFFIX + TEMP_FILE_SUFFIX);
+        final FileOutputStream outputStream = new FileOutputStream(tempFile);
+        final Writer writer = new OutputStreamWriter(outputStream, UTF_8);
+        try {
+            writer.write(GENERATION_PREFIX);
+            writer.write(Long.toString(newGeneration));
+            for (final T item : actualItems) {
+                writer.write(LINE_SEPARATOR);
+                writer.write(toLine(item));
+            }
+            writer.flush();
+            outputStream.getFD().sync();
+        } finally {
+            writer.close();
+        }
+        if (!tempFile.renameTo(getSnapshotFile())) {
+            throw new IOException("Can't rename file " + tempFile);
+        }
+    }
+
+}
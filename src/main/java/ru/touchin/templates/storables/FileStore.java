@@ -0,0 +1,164 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.storables;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Type;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.Okio;
+import ru.touchin.roboswag.core.observables.storable.Store;
+import ru.touchin.roboswag.core.utils.Optional;
+import ru.touchin.roboswag.core.utils.ShouldNotHappenException;
+import rx.Completable;
+import rx.Single;
+
+/**
+ * {@link Store} that is keeping each value in its own file inside of directory.
+ * Use it instead of preferences for big values (like cached lists) as preferences are loading and rewriting all values at once.
+ * Strings are decoded from and encoded into files by okio buffers without intermediate byte and char arrays.
+ * Files are written atomically: value is written into temporary file (inside of separate subdirectory) which is synced
+ * and then renamed to actual file, so value is never lost or broken if process dies during writing.
+ * Null value removes file. I/O errors are emitted as errors of returned {@link Single}s and {@link Completable}s.
+ * Requires okio library (it comes with OkHttp and Retrofit).
+ */
+public class FileStore implements Store<String, String> {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    // encoded keys are never starting with dot so it could not clash with file of any key
+    private static final String TEMP_DIRECTORY_NAME = ".tmp";
+    private static final String ESCAPED_DOT = "%2E";
+
+    /**
+     * Creates store in directory with specific name inside of application files directory.
+     *
+     * @param context       Context of application;
+     * @param directoryName Name of directory to store files in;
+     * @return New {@link FileStore}.
+     */
+    @NonNull
+    public static FileStore inFilesDirectory(@NonNull final Context context, @NonNull final String directoryName) {
+        return new FileStore(new File(context.getFilesDir(), directoryName));
+    }
+
+    @NonNull
+    private final File directory;
+    @NonNull
+    private final Object lock = new Object();
+
+    public FileStore(@NonNull final File directory) {
+        this.directory = directory;
+    }
+
+    @NonNull
+    private File getFile(@NonNull final String key) {
+        try {
+            final String fileName = URLEncoder.encode(key, UTF_8.name());
+            // URLEncoder is not encoding dots so keys like "." or ".." could point outside of file
+            return new File(directory, fileName.startsWith(".") ? ESCAPED_DOT + fileName.substring(1) : fileName);
+        } catch (final UnsupportedEncodingException exception) {
+            throw new ShouldNotHappenException(exception);
+        }
+    }
+
+    @NonNull
+    @Override
+    public Single<Boolean> contains(@NonNull final String key) {
+        return Single.fromCallable(() -> {
+            synchronized (lock) {
+                return getFile(key).exists();
+            }
+        });
+    }
+
+    @NonNull
+    @Override
+    public Completable storeObject(@NonNull final Type storeObjectType, @NonNull final String key, @Nullable final String storeObject) {
+        return Completable.fromCallable(() -> {
+            synchronized (lock) {
+                writeFile(getFile(key), storeObject);
+                return null;
+            }
+        });
+    }
+
+    @NonNull
+    @Override
+    public Single<Optional<String>> loadObject(@NonNull final Type storeObjectType, @NonNull final String key) {
+        return Single.fromCallable(() -> {
+            synchronized (lock) {
+                return new Optional<>(readFile(getFile(key)));
+            }
+        });
+    }
+
+    @Nullable
+    private String readFile(@NonNull final File file) throws IOException {
+        if (!file.exists()) {
+            return null;
+        }
+        final BufferedSource source = Okio.buffer(Okio.source(file));
+        try {
+            return source.readUtf8();
+        } finally {
+            source.close();
+        }
+    }
+
+    private void writeFile(@NonNull final File file, @Nullable final String value) throws IOException {
+        if (value == null) {
+            if (file.exists() && !file.delete()) {
+                throw new IOException("Can't delete file " + file);
+            }
+            return;
+        }
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Can't create directory " + directory);
+        }
+        final File tempDirectory = new File(directory, TEMP_DIRECTORY_NAME);
+        if (!tempDirectory.exists() && !tempDirectory.mkdirs()) {
+            throw new IOException("Can't create directory " + tempDirectory);
+        }
+        final File tempFile = new File(tempDirectory, file.getName());
+        final FileOutputStream outputStream = new FileOutputStream(tempFile);
+        try {
+            final BufferedSink sink = Okio.buffer(Okio.sink(outputStream));
+            sink.writeUtf8(value);
+            sink.flush();
+            outputStream.getFD().sync();
+        } finally {
+            outputStream.close();
+        }
+        if (!tempFile.renameTo(file)) {
+            throw new IOException("Can't rename file " + tempFile + " to " + file);
+        }
+    }
+
+}
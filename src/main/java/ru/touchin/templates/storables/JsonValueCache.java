@@ -0,0 +1,200 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.storables;
+
+import android.content.ComponentCallbacks2;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.LruCache;
+
+import java.lang.reflect.Type;
+
+import ru.touchin.roboswag.core.observables.storable.Converter;
+import ru.touchin.roboswag.core.observables.storable.Storable;
+import ru.touchin.roboswag.core.observables.storable.Store;
+
+/**
+ * Shared in-memory LRU cache of deserialized values of JSON storables.
+ * By default JSON storables are keeping every read value in memory forever ({@link Storable.ObserveStrategy#CACHE_ACTUAL_VALUE}).
+ * Storables that are created with cache enabled (see {@link #createStorableBuilder}) are not keeping values themselves,
+ * they are converting values by {@link CachingConverter} which keeps value in this cache together with JSON it was converted from.
+ * If stored JSON is same as cached one then cached value is returned without parsing, otherwise JSON is parsed again.
+ * So least recently used values are released and are deserialized again lazily on next access.
+ * Cache is bounded by estimated size of values which is calculated from length of their JSON.
+ * Cache is released on low memory by {@link ru.touchin.templates.TouchinApp}.
+ */
+public final class JsonValueCache {
+
+    public static final int DEFAULT_MAX_SIZE_IN_BYTES = 1024 * 1024;
+
+    private static final Object LOCK = new Object();
+    @NonNull
+    private static LruCache<CachingConverter<?>, Entry> cache = createCache(DEFAULT_MAX_SIZE_IN_BYTES);
+
+    @NonNull
+    private static LruCache<CachingConverter<?>, Entry> createCache(final int maxSizeInBytes) {
+        return new LruCache<CachingConverter<?>, Entry>(maxSizeInBytes) {
+            @Override
+            protected int sizeOf(@NonNull final CachingConverter<?> key, @NonNull final Entry entry) {
+                return entry.sizeInBytes;
+            }
+        };
+    }
+
+    /**
+     * Sets maximum estimated size of values to keep in memory. Clears cache.
+     *
+     * @param maxSizeInBytes Maximum size of values.
+     */
+    public static void setMaxSize(final int maxSizeInBytes) {
+        synchronized (LOCK) {
+            cache = createCache(maxSizeInBytes);
+        }
+    }
+
+    /**
+     * Creates builder of storable that is storing values as JSON strings.
+     *
+     * @param name      Name of storable;
+     * @param jsonType  Type of values;
+     * @param store     Store of JSON strings;
+     * @param converter Converter of values to JSON strings;
+     * @param cached    If true then values are kept in this cache, otherwise storable keeps actual value itself;
+     * @param <T>       Type of values;
+     * @return {@link Storable.Builder}.
+     */
+    @NonNull
+    public static <T> Storable.Builder<String, T, String> createStorableBuilder(@NonNull final String name,
+                                                                              @NonNull final Type jsonType,
+                                                                              @NonNull final Store<String, String> store,
+                                                                              @NonNull final Converter<T, String> converter,
+                                                                              final boolean cached) {
+        if (!cached) {
+            return new Storable.Builder<String, T, String>(name, jsonType, String.class, store, converter)
+                    .setObserveStrategy(Storable.ObserveStrategy.CACHE_ACTUAL_VALUE);
+        }
+        return new Storable.Builder<String, T, String>(name, jsonType, String.class, store, new CachingConverter<>(converter))
+                .setObserveStrategy(Storable.ObserveStrategy.NO_CACHE);
+    }
+
+    /**
+     * Releases memory of cache. Call it from {@link android.content.ComponentCallbacks2#onTrimMemory(int)}.
+     *
+     * @param level Level of memory trimming.
+     */
+    public static void trimMemory(final int level) {
+        synchronized (LOCK) {
+            if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+                cache.evictAll();
+            } else if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+                cache.trimToSize(cache.maxSize() / 2);
+            }
+        }
+    }
+
+    /**
+     * Removes all values from cache.
+     */
+    public static void clear() {
+        synchronized (LOCK) {
+            cache.evictAll();
+        }
+    }
+
+    private static void put(@NonNull final CachingConverter<?> converter, @NonNull final String storeObject, @NonNull final Object value) {
+        // JSON is kept to compare it with stored one (2 bytes per char) and value is estimated to take about same size
+        final long sizeInBytes = 4L * storeObject.length();
+        synchronized (LOCK) {
+            if (sizeInBytes <= cache.maxSize()) {
+                cache.put(converter, new Entry(storeObject, value, (int) sizeInBytes));
+            } else {
+                cache.remove(converter);
+            }
+        }
+    }
+
+    private JsonValueCache() {
+    }
+
+    /**
+     * Converter of one storable that is keeping last converted value in {@link JsonValueCache}.
+     *
+     * @param <T> Type of values.
+     */
+    public static class CachingConverter<T> implements Converter<T, String> {
+
+        @NonNull
+        private final Converter<T, String> converter;
+
+        public CachingConverter(@NonNull final Converter<T, String> converter) {
+            this.converter = converter;
+        }
+
+        @Nullable
+        @Override
+        public String toStoreObject(@NonNull final Type objectType, @NonNull final Type storeObjectType, @Nullable final T object) {
+            final String storeObject = converter.toStoreObject(objectType, storeObjectType, object);
+            // if storing fails then stored JSON differs from this one and cached value is just not used
+            if (object != null && storeObject != null) {
+                put(this, storeObject, object);
+            }
+            return storeObject;
+        }
+
+        @Nullable
+        @Override
+        @SuppressWarnings("unchecked")
+        public T toObject(@NonNull final Type objectType, @NonNull final Type storeObjectType, @Nullable final String storeObject) {
+            if (storeObject == null) {
+                return converter.toObject(objectType, storeObjectType, null);
+            }
+            final Entry entry;
+            synchronized (LOCK) {
+                entry = cache.get(this);
+            }
+            if (entry != null && entry.storeObject.equals(storeObject)) {
+                return (T) entry.value;
+            }
+            final T object = converter.toObject(objectType, storeObjectType, storeObject);
+            if (object != null) {
+                put(this, storeObject, object);
+            }
+            return object;
+        }
+
+    }
+
+    private static class Entry {
+
+        @NonNull
+        private final String storeObject;
+        @NonNull
+        private final Object value;
+        private final int sizeInBytes;
+
+        public Entry(@NonNull final String storeObject, @NonNull final Object value, final int sizeInBytes) {
+            this.storeObject = storeObject;
+            this.value = value;
+            this.sizeInBytes = sizeInBytes;
+        }
+
+    }
+
+}
@@ -0,0 +1,208 @@
+/*
+ *  Copyright (c) 2017 Touch Instinct
+ *
+ *  This file is part of RoboSwag library.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package ru.touchin.templates.storables;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import ru.touchin.roboswag.core.log.Lc;
+import ru.touchin.roboswag.core.observables.storable.Storable;
+import rx.Completable;
+import rx.Observable;
+import rx.Scheduler;
+import rx.Single;
+import rx.schedulers.Schedulers;
+
+/**
+ * Wrapper of {@link Storable} that is writing values in background (write-behind).
+ * {@link #set(Object)} returns immediately and value is converted and stored later on background thread.
+ * If value is set again before previous one is stored then previous one is dropped, so rapid sets are coalesced into one write.
+ * Value that is set is returned by {@link #get()} even while it is not stored yet or is being stored.
+ * Call {@link #flush()} on shutdown paths to make sure that last value is stored.
+ *
+ * @param <T> Type of value.
+ */
+public class WriteBehindStorable<T> {
+
+    private static final Object NO_VALUE = new Object();
+    @NonNull
+    private static final Scheduler WRITE_SCHEDULER = Schedulers.from(Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "WriteBehindStorable");
+        thread.setDaemon(true);
+        return thread;
+    }));
+
+    @NonNull
+    private final Storable<?, T, ?> storable;
+    @NonNull
+    private final AtomicReference<Object> pendingValue = new AtomicReference<>(NO_VALUE);
+    // value that is taken from pending but is not stored yet
+    @NonNull
+    private final AtomicReference<Object> inFlightValue = new AtomicReference<>(NO_VALUE);
+    @NonNull
+    private final AtomicLong writesCount = new AtomicLong();
+    @NonNull
+    private final AtomicLong supersededWritesCount = new AtomicLong();
+    @NonNull
+    private final AtomicLong lastFlushLatencyNanos = new AtomicLong();
+    @NonNull
+    private final AtomicLong maxFlushLatencyNanos = new AtomicLong();
+
+    public WriteBehindStorable(@NonNull final Storable<?, T, ?> storable) {
+        this.storable = storable;
+    }
+
+    /**
+     * Returns wrapped storable.
+     *
+     * @return {@link Storable}.
+     */
+    @NonNull
+    public Storable<?, T, ?> getStorable() {
+        return storable;
+    }
+
+    /**
+     * Sets value which will be stored in background.
+     *
+     * @param value Value to store.
+     */
+    public void set(@Nullable final T value) {
+        if (pendingValue.getAndSet(value) == NO_VALUE) {
+            final Scheduler.Worker worker = WRITE_SCHEDULER.createWorker();
+            worker.schedule(() -> {
+                writePendingValue();
+                worker.unsubscribe();
+            });
+        } else {
+            supersededWritesCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns actual value including value that is not stored yet.
+     *
+     * @return {@link Single} of value.
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public Single<T> get() {
+        return Single.defer(() -> {
+            final Object value = pendingValue.get();
+            if (value != NO_VALUE) {
+                return Single.just((T) value);
+            }
+            final Object storingValue = inFlightValue.get();
+            return storingValue != NO_VALUE ? Single.just((T) storingValue) : storable.get();
+        });
+    }
+
+    /**
+     * Returns {@link Observable} of stored value. Values are emitted after they are stored.
+     *
+     * @return {@link Observable} of value.
+     */
+    @NonNull
+    public Observable<T> observe() {
+        return storable.observe();
+    }
+
+    /**
+     * Stores pending value if it is not stored yet. Completes after all previously set values are stored.
+     *
+     * @return {@link Completable} of flush.
+     */
+    @NonNull
+    public Completable flush() {
+        return Completable
+                .fromAction(() -> {
+                    final long startTime = System.nanoTime();
+                    writePendingValue();
+                    final long latency = System.nanoTime() - startTime;
+                    lastFlushLatencyNanos.set(latency);
+                    long maxLatency = maxFlushLatencyNanos.get();
+                    while (latency > maxLatency && !maxFlushLatencyNanos.compareAndSet(maxLatency, latency)) {
+                        maxLatency = maxFlushLatencyNanos.get();
+                    }
+                })
+                // same single thread is writing values so all previous writes are done before flush
+                .subscribeOn(WRITE_SCHEDULER);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writePendingValue() {
+        Object value;
+        // value becomes in-flight before it is removed from pending so get() is never missing it
+        do {
+            value = pendingValue.get();
+            if (value == NO_VALUE) {
+                return;
+            }
+            inFlightValue.set(value);
+        } while (!pendingValue.compareAndSet(value, NO_VALUE));
+        final Throwable throwable = storable.set((T) value).get();
+        if (throwable != null) {
+            Lc.assertion(throwable);
+        }
+        inFlightValue.compareAndSet(value, NO_VALUE);
+        writesCount.incrementAndGet();
+    }
+
+    /**
+     * Returns count of values that are stored.
+     *
+     * @return Count of writes.
+     */
+    public long getWritesCount() {
+        return writesCount.get();
+    }
+
+    /**
+     * Returns count of values that were dropped as newer value was set before they were stored.
+     *
+     * @return Count of superseded writes.
+     */
+    public long getSupersededWritesCount() {
+        return supersededWritesCount.get();
+    }
+
+    /**
+     * Returns duration of last {@link #flush()} without time of waiting for previous writes.
+     *
+     * @return Latency in nanoseconds.
+     */
+    public long getLastFlushLatencyNanos() {
+        return lastFlushLatencyNanos.get();
+    }
+
+    /**
+     * Returns maximum duration of {@link #flush()} without time of waiting for previous writes.
+     *
+     * @return Latency in nanoseconds.
+     */
+    public long getMaxFlushLatencyNanos() {
+        return maxFlushLatencyNanos.get();
+    }
+
+}